@@ -16,10 +16,18 @@
 package org.elasticlib.common.client;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Optional;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 import static org.elasticlib.common.client.ClientUtil.read;
+import static org.elasticlib.common.client.ClientUtil.readAll;
+import org.elasticlib.common.hash.Hash;
 import org.elasticlib.common.model.NodeInfo;
+import org.elasticlib.common.model.TaskStats;
 
 /**
  * Local node API.
@@ -27,6 +35,7 @@ import org.elasticlib.common.model.NodeInfo;
 public class NodeTarget {
 
     private static final String NODE = "node";
+    private static final String TASKS = "tasks";
 
     private final WebTarget target;
 
@@ -55,4 +64,33 @@ public class NodeTarget {
         Response response = target.request().get();
         return read(response, NodeInfo.class);
     }
+
+    /**
+     * Provides the info about the node this client is currently connected to, only if it has changed since caller
+     * retrieved it. Otherwise, node responds without any body.
+     *
+     * @param tag Tag of the node info held by caller.
+     * @return Current node info, if it does not match supplied tag.
+     */
+    public Optional<NodeInfo> getInfo(Hash tag) {
+        Response response = target.request()
+                .header(HttpHeaders.IF_NONE_MATCH, new EntityTag(tag.asHexadecimalString()))
+                .get();
+
+        if (response.getStatus() == Status.NOT_MODIFIED.getStatusCode()) {
+            response.close();
+            return Optional.empty();
+        }
+        return Optional.of(read(response, NodeInfo.class));
+    }
+
+    /**
+     * Provides statistics about asynchronous tasks executed by the node this client is currently connected to.
+     *
+     * @return A list of task statistics, per task type.
+     */
+    public List<TaskStats> listTaskStats() {
+        Response response = target.path(TASKS).request().get();
+        return readAll(response, TaskStats.class);
+    }
 }
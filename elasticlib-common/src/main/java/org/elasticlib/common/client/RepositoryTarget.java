@@ -26,9 +26,11 @@ import static java.util.Collections.emptyList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import static javax.ws.rs.client.Entity.entity;
 import static javax.ws.rs.client.Entity.json;
 import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -40,12 +42,15 @@ import static org.elasticlib.common.client.ClientUtil.result;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.hash.Hash;
 import static org.elasticlib.common.json.JsonWriting.write;
+import static org.elasticlib.common.json.JsonWriting.writeAll;
 import org.elasticlib.common.model.CommandResult;
 import org.elasticlib.common.model.ContentInfo;
 import org.elasticlib.common.model.Digest;
 import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.IndexEntry;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.RepositoryInfo;
+import org.elasticlib.common.model.RepositoryMetrics;
 import org.elasticlib.common.model.Revision;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.StagingInfo;
@@ -63,12 +68,18 @@ public class RepositoryTarget {
     private static final String REVISIONS = "revisions";
     private static final String INDEX = "index";
     private static final String HISTORY = "history";
+    private static final String FEED = "feed";
+    private static final String PARTITIONS = "partitions";
+    private static final String METRICS = "metrics";
+    private static final String TREES = "trees";
     private static final String INFO_TEMPLATE = "info/{hash}";
     private static final String STAGE_TEMPLATE = "stage/{hash}";
     private static final String WRITE_TEMPLATE = "stage/{hash}/{sessionId}";
+    private static final String IMPORT_TEMPLATE = "imports/{hash}";
     private static final String CONTENTS_TEMPLATE = "contents/{hash}";
     private static final String DIGEST_TEMPLATE = "digests/{hash}";
     private static final String REVISIONS_TEMPLATE = "revisions/{hash}";
+    private static final String HISTORY_TEMPLATE = "history/{hash}";
     private static final String SESSION_ID = "sessionId";
     private static final String POSITION = "position";
     private static final String HASH = "hash";
@@ -78,9 +89,12 @@ public class RepositoryTarget {
     private static final String FILENAME = "filename";
     private static final String OFFSET = "offset";
     private static final String LENGTH = "length";
+    private static final String KEY = "key";
     private static final String QUERY = "query";
     private static final String FROM = "from";
     private static final String SIZE = "size";
+    private static final String TIMEOUT = "timeout";
+    private static final String SOURCE = "source";
     private static final String SORT = "sort";
     private static final String ASC = "asc";
     private static final String DESC = "desc";
@@ -142,6 +156,20 @@ public class RepositoryTarget {
                 .post(json(write(tree))));
     }
 
+    /**
+     * Merges several revision trees at once. Either all of them are merged, or none of them is.
+     *
+     * @param trees Revision trees.
+     * @return Actual operation results, in the same order as supplied trees.
+     */
+    public List<CommandResult> mergeTrees(List<RevisionTree> trees) {
+        Response response = target.path(TREES)
+                .request()
+                .post(json(writeAll(trees)));
+
+        return readAll(response, CommandResult.class);
+    }
+
     /**
      * Prepares to add a new content.
      *
@@ -157,6 +185,26 @@ public class RepositoryTarget {
         return read(response, StagingInfo.class);
     }
 
+    /**
+     * Makes remote node import a content into this repository, directly from another repository. Remote node waits for
+     * this import to complete, up to supplied timeout. Import is still carried on if timeout expires.
+     *
+     * @param hash Content hash.
+     * @param source GUID of the repository to import from.
+     * @param timeout Maximum time to wait for, in milliseconds.
+     * @return Info about this content in this repository.
+     */
+    public ContentInfo importContent(Hash hash, Guid source, long timeout) {
+        Response response = target.path(IMPORT_TEMPLATE)
+                .resolveTemplate(HASH, hash)
+                .queryParam(SOURCE, source)
+                .queryParam(TIMEOUT, timeout)
+                .request()
+                .post(null);
+
+        return read(response, ContentInfo.class);
+    }
+
     /**
      * Writes bytes to a staged content.
      *
@@ -244,6 +292,23 @@ public class RepositoryTarget {
         return read(response, RevisionTree.class);
     }
 
+    /**
+     * Provides revision trees of this repository in a paginated way, sorted by content hash.
+     *
+     * @param from Hash of the content to start with.
+     * @param size Number of items to return.
+     * @return A list of revision trees.
+     */
+    public List<RevisionTree> getTrees(Hash from, int size) {
+        Response response = target.path(TREES)
+                .queryParam(FROM, from)
+                .queryParam(SIZE, size)
+                .request()
+                .get();
+
+        return readAll(response, RevisionTree.class);
+    }
+
     /**
      * Provides head revisions of a given content.
      *
@@ -444,4 +509,90 @@ public class RepositoryTarget {
 
         return readAll(response, Event.class);
     }
+
+    /**
+     * Provides history of a given content in a paginated way.
+     *
+     * @param hash Content hash.
+     * @param asc If true, returned list is sorted chronologically.
+     * @param from First item to return.
+     * @param size Number of items to return.
+     * @return A list of history events.
+     */
+    public List<Event> history(Hash hash, boolean asc, long from, int size) {
+        Response response = target.path(HISTORY_TEMPLATE)
+                .resolveTemplate(HASH, hash)
+                .queryParam(SORT, asc ? ASC : DESC)
+                .queryParam(FROM, from)
+                .queryParam(SIZE, size)
+                .request()
+                .get();
+
+        return readAll(response, Event.class);
+    }
+
+    /**
+     * Asynchronously provides latest history events, in reverse chronological order, down to supplied sequence value.
+     * If there is no such event yet, remote node waits for some to happen, up to supplied timeout.
+     *
+     * @param from Sequence value of the oldest item to return.
+     * @param size Maximum number of items to return.
+     * @param timeout Maximum time to wait for, in milliseconds.
+     * @return A future list of history events, empty if timeout expired.
+     */
+    public CompletableFuture<List<Event>> awaitHistory(long from, int size, long timeout) {
+        CompletableFuture<List<Event>> future = new CompletableFuture<>();
+        target.path(FEED)
+                .queryParam(FROM, from)
+                .queryParam(SIZE, size)
+                .queryParam(TIMEOUT, timeout)
+                .request()
+                .async()
+                .get(new InvocationCallback<Response>() {
+                    @Override
+                    public void completed(Response response) {
+                        try {
+                            future.complete(readAll(response, Event.class));
+
+                        } catch (RuntimeException e) {
+                            future.completeExceptionally(e);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Throwable throwable) {
+                        future.completeExceptionally(throwable);
+                    }
+                });
+
+        return future;
+    }
+
+    /**
+     * Provides the partitions directly nested in a given one.
+     *
+     * @param key Key of the parent partition. Empty key denotes the whole repository.
+     * @return A list of non-empty partitions, sorted by key.
+     */
+    public List<Partition> getPartitions(String key) {
+        Response response = target.path(PARTITIONS)
+                .queryParam(KEY, key)
+                .request()
+                .get();
+
+        return readAll(response, Partition.class);
+    }
+
+    /**
+     * Provides runtime metrics of this repository.
+     *
+     * @return A RepositoryMetrics instance.
+     */
+    public RepositoryMetrics getMetrics() {
+        Response response = target.path(METRICS)
+                .request()
+                .get();
+
+        return read(response, RepositoryMetrics.class);
+    }
 }
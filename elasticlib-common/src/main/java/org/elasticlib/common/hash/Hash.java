@@ -15,6 +15,7 @@
  */
 package org.elasticlib.common.hash;
 
+import static com.google.common.base.Strings.padEnd;
 import java.util.Set;
 import java.util.TreeSet;
 import static org.elasticlib.common.hash.AbstractKey.isBase16;
@@ -58,6 +59,26 @@ public final class Hash extends AbstractKey implements Comparable<Hash> {
         return value.length() == SHA1_LENGTH * 2 && isBase16(value);
     }
 
+    /**
+     * Checks if supplied value is a valid key, that is a strict prefix of an encoded SHA-1 hash.
+     *
+     * @param value Some text.
+     * @return If supplied text represents a valid key.
+     */
+    public static boolean isValidKey(String value) {
+        return value.length() < SHA1_LENGTH * 2 && isBase16(value);
+    }
+
+    /**
+     * Provides the lowest hash which derives supplied key.
+     *
+     * @param key A valid key.
+     * @return A new Hash instance.
+     */
+    public static Hash lowest(String key) {
+        return new Hash(padEnd(key, SHA1_LENGTH * 2, '0'));
+    }
+
     /**
      * Derives a key from this hash.
      *
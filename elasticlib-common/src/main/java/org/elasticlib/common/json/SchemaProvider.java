@@ -34,15 +34,18 @@ import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.IndexEntry;
 import org.elasticlib.common.model.NodeDef;
 import org.elasticlib.common.model.NodeInfo;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.RemoteInfo;
 import org.elasticlib.common.model.ReplicationDef;
 import org.elasticlib.common.model.ReplicationInfo;
 import org.elasticlib.common.model.RepositoryDef;
 import org.elasticlib.common.model.RepositoryInfo;
+import org.elasticlib.common.model.RepositoryMetrics;
 import org.elasticlib.common.model.RepositoryStats;
 import org.elasticlib.common.model.Revision;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.StagingInfo;
+import org.elasticlib.common.model.TaskStats;
 
 /**
  * Provides schemas used to write/read/validate Mappable instances as JSON.
@@ -60,15 +63,18 @@ final class SchemaProvider {
                  RevisionTree.class,
                  Event.class,
                  IndexEntry.class,
+                 Partition.class,
                  RepositoryDef.class,
                  ReplicationDef.class,
                  AgentInfo.class,
                  RepositoryStats.class,
                  RepositoryInfo.class,
+                 RepositoryMetrics.class,
                  ReplicationInfo.class,
                  NodeDef.class,
                  NodeInfo.class,
                  RemoteInfo.class,
+                 TaskStats.class,
                  NodeException.class);
     }
 
@@ -51,7 +51,7 @@ public class DigestOutputStream extends OutputStream {
 
     @Override
     public void write(byte[] bytes, int offset, int length) {
-        messageDigest.update(bytes, 0, length);
+        messageDigest.update(bytes, offset, length);
         totalLength += length;
     }
 
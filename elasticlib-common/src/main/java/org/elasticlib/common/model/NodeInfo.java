@@ -22,7 +22,9 @@ import java.util.List;
 import java.util.Map;
 import static java.util.Objects.hash;
 import static java.util.stream.Collectors.toList;
+import org.elasticlib.common.bson.BsonWriter;
 import org.elasticlib.common.hash.Guid;
+import org.elasticlib.common.hash.Hash;
 import org.elasticlib.common.mappable.MapBuilder;
 import org.elasticlib.common.mappable.Mappable;
 import org.elasticlib.common.util.EqualsBuilder;
@@ -37,6 +39,7 @@ public class NodeInfo implements Mappable {
     private static final String REPOSITORIES = "repositories";
     private final NodeDef nodeDef;
     private final List<RepositoryInfo> repositoryInfos;
+    private volatile Hash tag;
 
     /**
      * Constructor.
@@ -77,6 +80,21 @@ public class NodeInfo implements Mappable {
         return repositoryInfos;
     }
 
+    /**
+     * Provides a tag of this info, which changes as soon as any part of this info changes. This allows remote nodes to
+     * cheaply check whether the info they hold is up to date. Computed once per instance.
+     *
+     * @return A hash of this info.
+     */
+    public Hash getTag() {
+        Hash result = tag;
+        if (result == null) {
+            result = Digest.of(new BsonWriter().put(toMap()).build()).getHash();
+            tag = result;
+        }
+        return result;
+    }
+
     @Override
     public Map<String, Value> toMap() {
         MapBuilder builder = new MapBuilder()
@@ -0,0 +1,120 @@
+/* 
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.common.model;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import java.util.Map;
+import static java.util.Objects.hash;
+import org.elasticlib.common.hash.Hash;
+import org.elasticlib.common.mappable.MapBuilder;
+import org.elasticlib.common.mappable.Mappable;
+import org.elasticlib.common.util.EqualsBuilder;
+import org.elasticlib.common.value.Value;
+
+/**
+ * Summarizes the contents of a repository whose hashes share a given key, that is a given hexadecimal prefix. Provides
+ * the number of such contents and a hash computed from their hashes and head revisions, in hash order. Two repositories
+ * whose partitions for a given key have the same hash hold the same head revisions for all the related contents.
+ */
+public final class Partition implements Mappable {
+
+    private static final String KEY = "key";
+    private static final String COUNT = "count";
+    private static final String HASH = "hash";
+    private final String key;
+    private final long count;
+    private final Hash hash;
+
+    /**
+     * Constructor.
+     *
+     * @param key Partition key.
+     * @param count Number of contents in this partition.
+     * @param hash Partition hash.
+     */
+    public Partition(String key, long count, Hash hash) {
+        this.key = key;
+        this.count = count;
+        this.hash = hash;
+    }
+
+    /**
+     * @return The partition key.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return The number of contents in this partition.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The partition hash.
+     */
+    public Hash getHash() {
+        return hash;
+    }
+
+    @Override
+    public Map<String, Value> toMap() {
+        return new MapBuilder()
+                .put(KEY, key)
+                .put(COUNT, count)
+                .put(HASH, hash)
+                .build();
+    }
+
+    /**
+     * Reads a new instance from supplied map of values.
+     *
+     * @param map A map of values.
+     * @return A new instance.
+     */
+    public static Partition fromMap(Map<String, Value> map) {
+        return new Partition(map.get(KEY).asString(), map.get(COUNT).asLong(), map.get(HASH).asHash());
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(key, count, hash);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Partition)) {
+            return false;
+        }
+        Partition other = (Partition) obj;
+        return new EqualsBuilder()
+                .append(key, other.key)
+                .append(count, other.count)
+                .append(hash, other.hash)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add(KEY, key)
+                .add(COUNT, count)
+                .add(HASH, hash)
+                .toString();
+    }
+}
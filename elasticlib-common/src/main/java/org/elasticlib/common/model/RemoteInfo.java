@@ -21,6 +21,7 @@ import java.time.Instant;
 import static java.time.Instant.now;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import static java.util.Objects.hash;
 import static java.util.stream.Collectors.toList;
 import org.elasticlib.common.hash.Guid;
@@ -75,6 +76,23 @@ public class RemoteInfo implements Mappable {
         return new RemoteInfo(nodeInfo, now());
     }
 
+    /**
+     * Checks whether supplied info differs from this one, regardless of their refresh dates.
+     *
+     * @param other Another RemoteInfo instance.
+     * @return True if this is the case.
+     */
+    public boolean differsFrom(RemoteInfo other) {
+        return !nodeInfo.equals(other.nodeInfo) || !Objects.equals(transportUri, other.transportUri);
+    }
+
+    /**
+     * @return Info about this node, as lastly retrieved.
+     */
+    public NodeInfo getNodeInfo() {
+        return nodeInfo;
+    }
+
     /**
      * @return If this node is reachable.
      */
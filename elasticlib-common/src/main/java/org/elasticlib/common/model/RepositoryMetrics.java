@@ -0,0 +1,154 @@
+/* 
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.common.model;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import java.util.Map;
+import static java.util.Objects.hash;
+import org.elasticlib.common.mappable.MapBuilder;
+import org.elasticlib.common.mappable.Mappable;
+import org.elasticlib.common.util.EqualsBuilder;
+import org.elasticlib.common.value.Value;
+
+/**
+ * Holds runtime metrics of an opened repository. Unlike repository stats, these metrics are not persisted and are
+ * reset each time the repository is opened.
+ */
+public final class RepositoryMetrics implements Mappable {
+
+    private static final String READ_LOCK_CONTENTIONS = "readLockContentions";
+    private static final String WRITE_LOCK_CONTENTIONS = "writeLockContentions";
+    private static final String TREE_CACHE_HITS = "treeCacheHits";
+    private static final String TREE_CACHE_MISSES = "treeCacheMisses";
+    private static final String TREE_CACHE_EVICTIONS = "treeCacheEvictions";
+    private final long readLockContentions;
+    private final long writeLockContentions;
+    private final long treeCacheHits;
+    private final long treeCacheMisses;
+    private final long treeCacheEvictions;
+
+    /**
+     * Constructor.
+     *
+     * @param readLockContentions The readLockContentions attribute.
+     * @param writeLockContentions The writeLockContentions attribute.
+     * @param treeCacheHits The treeCacheHits attribute.
+     * @param treeCacheMisses The treeCacheMisses attribute.
+     * @param treeCacheEvictions The treeCacheEvictions attribute.
+     */
+    public RepositoryMetrics(long readLockContentions,
+                             long writeLockContentions,
+                             long treeCacheHits,
+                             long treeCacheMisses,
+                             long treeCacheEvictions) {
+        this.readLockContentions = readLockContentions;
+        this.writeLockContentions = writeLockContentions;
+        this.treeCacheHits = treeCacheHits;
+        this.treeCacheMisses = treeCacheMisses;
+        this.treeCacheEvictions = treeCacheEvictions;
+    }
+
+    /**
+     * @return The number of content read lock acquisitions that had to wait so far.
+     */
+    public long getReadLockContentions() {
+        return readLockContentions;
+    }
+
+    /**
+     * @return The number of content write lock acquisitions that had to wait so far.
+     */
+    public long getWriteLockContentions() {
+        return writeLockContentions;
+    }
+
+    /**
+     * @return The number of revision tree lookups served from cache so far.
+     */
+    public long getTreeCacheHits() {
+        return treeCacheHits;
+    }
+
+    /**
+     * @return The number of revision tree lookups which had to be loaded from storage so far.
+     */
+    public long getTreeCacheMisses() {
+        return treeCacheMisses;
+    }
+
+    /**
+     * @return The number of revision trees evicted from cache so far.
+     */
+    public long getTreeCacheEvictions() {
+        return treeCacheEvictions;
+    }
+
+    @Override
+    public Map<String, Value> toMap() {
+        return new MapBuilder()
+                .put(READ_LOCK_CONTENTIONS, readLockContentions)
+                .put(WRITE_LOCK_CONTENTIONS, writeLockContentions)
+                .put(TREE_CACHE_HITS, treeCacheHits)
+                .put(TREE_CACHE_MISSES, treeCacheMisses)
+                .put(TREE_CACHE_EVICTIONS, treeCacheEvictions)
+                .build();
+    }
+
+    /**
+     * Read a new instance from supplied map of values.
+     *
+     * @param map A map of values.
+     * @return A new instance.
+     */
+    public static RepositoryMetrics fromMap(Map<String, Value> map) {
+        return new RepositoryMetrics(map.get(READ_LOCK_CONTENTIONS).asLong(),
+                                     map.get(WRITE_LOCK_CONTENTIONS).asLong(),
+                                     map.get(TREE_CACHE_HITS).asLong(),
+                                     map.get(TREE_CACHE_MISSES).asLong(),
+                                     map.get(TREE_CACHE_EVICTIONS).asLong());
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add(READ_LOCK_CONTENTIONS, readLockContentions)
+                .add(WRITE_LOCK_CONTENTIONS, writeLockContentions)
+                .add(TREE_CACHE_HITS, treeCacheHits)
+                .add(TREE_CACHE_MISSES, treeCacheMisses)
+                .add(TREE_CACHE_EVICTIONS, treeCacheEvictions)
+                .toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(readLockContentions, writeLockContentions, treeCacheHits, treeCacheMisses, treeCacheEvictions);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof RepositoryMetrics)) {
+            return false;
+        }
+        RepositoryMetrics other = (RepositoryMetrics) obj;
+        return new EqualsBuilder()
+                .append(readLockContentions, other.readLockContentions)
+                .append(writeLockContentions, other.writeLockContentions)
+                .append(treeCacheHits, other.treeCacheHits)
+                .append(treeCacheMisses, other.treeCacheMisses)
+                .append(treeCacheEvictions, other.treeCacheEvictions)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.common.model;
+
+import java.io.OutputStream;
+import org.elasticlib.common.hash.Hash;
+
+/**
+ * An output stream that compute a digest from supplied bytes. Its state can be exported, so that a computation may be
+ * latter resumed without having to digest again previously written bytes.
+ * <p>
+ * Relies on a plain Java SHA-1 implementation, which is slower than the JDK one. Therefore, {@link DigestOutputStream}
+ * should be preferred whenever the state does not need to be exported.
+ */
+public class ResumableDigestOutputStream extends OutputStream {
+
+    private final Sha1 sha1;
+
+    /**
+     * Constructor.
+     */
+    public ResumableDigestOutputStream() {
+        this(new Sha1());
+    }
+
+    private ResumableDigestOutputStream(Sha1 sha1) {
+        this.sha1 = sha1;
+    }
+
+    /**
+     * Restores a stream from a state previously exported using {@link #getState()}.
+     *
+     * @param state An exported state.
+     * @return A new ResumableDigestOutputStream instance.
+     */
+    public static ResumableDigestOutputStream fromState(byte[] state) {
+        return new ResumableDigestOutputStream(Sha1.fromState(state));
+    }
+
+    @Override
+    public void write(int b) {
+        sha1.update((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        sha1.update(bytes, offset, length);
+    }
+
+    /**
+     * @return The total number of previously written bytes.
+     */
+    public long getLength() {
+        return sha1.getLength();
+    }
+
+    /**
+     * @return The Hash of previously written bytes.
+     */
+    public Hash getHash() {
+        return new Hash(sha1.digest());
+    }
+
+    /**
+     * Exports current state of this stream. Does not affect this stream state.
+     *
+     * @return Exported state.
+     */
+    public byte[] getState() {
+        return sha1.getState();
+    }
+
+    /**
+     * Creates a new digest. Does not affect this stream state, so more data may be added after this operation in order
+     * to build other digests.
+     *
+     * @return A new Digest instance.
+     */
+    public Digest getDigest() {
+        return new Digest(getHash(), getLength());
+    }
+}
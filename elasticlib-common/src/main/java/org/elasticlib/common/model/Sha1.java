@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.common.model;
+
+import static java.lang.Integer.rotateLeft;
+import static java.lang.Math.min;
+import java.nio.ByteBuffer;
+
+/**
+ * A SHA-1 message digest implementation. Unlike the JDK one, its internal state can be exported, and latter restored,
+ * so that a digest computation may be suspended and resumed.
+ */
+class Sha1 {
+
+    private static final int BLOCK_SIZE = 64;
+    private static final int DIGEST_SIZE = 20;
+    private static final int HEADER_SIZE = Long.BYTES + DIGEST_SIZE;
+
+    private final int[] h;
+    private final byte[] block;
+    private final int[] w = new int[80];
+    private long count;
+
+    /**
+     * Constructor.
+     */
+    public Sha1() {
+        this(new int[]{0x67452301, 0xEFCDAB89, 0x98BADCFE, 0x10325476, 0xC3D2E1F0}, new byte[BLOCK_SIZE], 0);
+    }
+
+    private Sha1(int[] h, byte[] block, long count) {
+        this.h = h;
+        this.block = block;
+        this.count = count;
+    }
+
+    /**
+     * Restores a digest from a state previously exported using {@link #getState()}.
+     *
+     * @param state An exported state.
+     * @return A new Sha1 instance.
+     */
+    public static Sha1 fromState(byte[] state) {
+        if (state.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Invalid digest state");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(state);
+        long count = buffer.getLong();
+        if (count < 0 || state.length != HEADER_SIZE + (int) (count % BLOCK_SIZE)) {
+            throw new IllegalArgumentException("Invalid digest state");
+        }
+        int[] h = new int[DIGEST_SIZE / Integer.BYTES];
+        for (int i = 0; i < h.length; i++) {
+            h[i] = buffer.getInt();
+        }
+        byte[] block = new byte[BLOCK_SIZE];
+        buffer.get(block, 0, buffer.remaining());
+        return new Sha1(h, block, count);
+    }
+
+    /**
+     * Exports current state of this digest.
+     *
+     * @return Exported state.
+     */
+    public byte[] getState() {
+        int pending = (int) (count % BLOCK_SIZE);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + pending);
+        buffer.putLong(count);
+        for (int value : h) {
+            buffer.putInt(value);
+        }
+        buffer.put(block, 0, pending);
+        return buffer.array();
+    }
+
+    /**
+     * @return The total number of bytes digested so far.
+     */
+    public long getLength() {
+        return count;
+    }
+
+    /**
+     * Updates this digest with supplied byte.
+     *
+     * @param b A byte.
+     */
+    public void update(byte b) {
+        block[(int) (count % BLOCK_SIZE)] = b;
+        count++;
+        if (count % BLOCK_SIZE == 0) {
+            compress(block, 0);
+        }
+    }
+
+    /**
+     * Updates this digest with supplied bytes.
+     *
+     * @param bytes A byte array.
+     * @param offset Offset of the first byte to digest in this array.
+     * @param length Number of bytes to digest.
+     */
+    public void update(byte[] bytes, int offset, int length) {
+        int pos = (int) (count % BLOCK_SIZE);
+        int off = offset;
+        int len = length;
+        count += length;
+        if (pos > 0) {
+            int n = min(BLOCK_SIZE - pos, len);
+            System.arraycopy(bytes, off, block, pos, n);
+            off += n;
+            len -= n;
+            if (pos + n < BLOCK_SIZE) {
+                return;
+            }
+            compress(block, 0);
+        }
+        while (len >= BLOCK_SIZE) {
+            compress(bytes, off);
+            off += BLOCK_SIZE;
+            len -= BLOCK_SIZE;
+        }
+        System.arraycopy(bytes, off, block, 0, len);
+    }
+
+    /**
+     * Computes the digest of all bytes supplied so far. Does not affect state of this instance, so that more bytes may
+     * be latter supplied.
+     *
+     * @return Computed digest.
+     */
+    public byte[] digest() {
+        Sha1 copy = new Sha1(h.clone(), block.clone(), count);
+        long bitLength = count * 8;
+        copy.update((byte) 0x80);
+        while (copy.count % BLOCK_SIZE != BLOCK_SIZE - Long.BYTES) {
+            copy.update((byte) 0);
+        }
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            copy.update((byte) (bitLength >>> (8 * i)));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(DIGEST_SIZE);
+        for (int value : copy.h) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    private void compress(byte[] bytes, int offset) {
+        for (int t = 0; t < 16; t++) {
+            int i = offset + 4 * t;
+            w[t] = (bytes[i] & 0xff) << 24 |
+                    (bytes[i + 1] & 0xff) << 16 |
+                    (bytes[i + 2] & 0xff) << 8 |
+                    (bytes[i + 3] & 0xff);
+        }
+        for (int t = 16; t < 80; t++) {
+            w[t] = rotateLeft(w[t - 3] ^ w[t - 8] ^ w[t - 14] ^ w[t - 16], 1);
+        }
+        int a = h[0];
+        int b = h[1];
+        int c = h[2];
+        int d = h[3];
+        int e = h[4];
+        for (int t = 0; t < 80; t++) {
+            int f;
+            int k;
+            if (t < 20) {
+                f = (b & c) | (~b & d);
+                k = 0x5A827999;
+
+            } else if (t < 40) {
+                f = b ^ c ^ d;
+                k = 0x6ED9EBA1;
+
+            } else if (t < 60) {
+                f = (b & c) | (b & d) | (c & d);
+                k = 0x8F1BBCDC;
+
+            } else {
+                f = b ^ c ^ d;
+                k = 0xCA62C1D6;
+            }
+            int temp = rotateLeft(a, 5) + f + e + k + w[t];
+            e = d;
+            d = c;
+            c = rotateLeft(b, 30);
+            b = a;
+            a = temp;
+        }
+        h[0] += a;
+        h[1] += b;
+        h[2] += c;
+        h[3] += d;
+        h[4] += e;
+    }
+}
@@ -0,0 +1,149 @@
+/* 
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.common.model;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import java.util.Map;
+import static java.util.Objects.hash;
+import org.elasticlib.common.mappable.MapBuilder;
+import org.elasticlib.common.mappable.Mappable;
+import org.elasticlib.common.util.EqualsBuilder;
+import org.elasticlib.common.value.Value;
+
+/**
+ * Holds statistics about the asynchronous tasks of a given type executed by a node.
+ */
+public final class TaskStats implements Mappable {
+
+    private static final String TYPE = "type";
+    private static final String QUEUED = "queued";
+    private static final String COMPLETED = "completed";
+    private static final String WAIT_TIME = "waitTime";
+    private static final String RUN_TIME = "runTime";
+    private final String type;
+    private final long queued;
+    private final long completed;
+    private final long waitTime;
+    private final long runTime;
+
+    /**
+     * Constructor.
+     *
+     * @param type The type attribute.
+     * @param queued The queued attribute.
+     * @param completed The completed attribute.
+     * @param waitTime The waitTime attribute.
+     * @param runTime The runTime attribute.
+     */
+    public TaskStats(String type, long queued, long completed, long waitTime, long runTime) {
+        this.type = type;
+        this.queued = queued;
+        this.completed = completed;
+        this.waitTime = waitTime;
+        this.runTime = runTime;
+    }
+
+    /**
+     * @return The type of the tasks.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return The number of tasks currently waiting for execution.
+     */
+    public long getQueued() {
+        return queued;
+    }
+
+    /**
+     * @return The number of task executions completed so far.
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return The total time tasks have waited for execution so far, in milliseconds.
+     */
+    public long getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * @return The total time tasks have been running so far, in milliseconds.
+     */
+    public long getRunTime() {
+        return runTime;
+    }
+
+    @Override
+    public Map<String, Value> toMap() {
+        return new MapBuilder()
+                .put(TYPE, type)
+                .put(QUEUED, queued)
+                .put(COMPLETED, completed)
+                .put(WAIT_TIME, waitTime)
+                .put(RUN_TIME, runTime)
+                .build();
+    }
+
+    /**
+     * Read a new instance from supplied map of values.
+     *
+     * @param map A map of values.
+     * @return A new instance.
+     */
+    public static TaskStats fromMap(Map<String, Value> map) {
+        return new TaskStats(map.get(TYPE).asString(),
+                             map.get(QUEUED).asLong(),
+                             map.get(COMPLETED).asLong(),
+                             map.get(WAIT_TIME).asLong(),
+                             map.get(RUN_TIME).asLong());
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add(TYPE, type)
+                .add(QUEUED, queued)
+                .add(COMPLETED, completed)
+                .add(WAIT_TIME, waitTime)
+                .add(RUN_TIME, runTime)
+                .toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(type, queued, completed, waitTime, runTime);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof TaskStats)) {
+            return false;
+        }
+        TaskStats other = (TaskStats) obj;
+        return new EqualsBuilder()
+                .append(type, other.type)
+                .append(queued, other.queued)
+                .append(completed, other.completed)
+                .append(waitTime, other.waitTime)
+                .append(runTime, other.runTime)
+                .build();
+    }
+}
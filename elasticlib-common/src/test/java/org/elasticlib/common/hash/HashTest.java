@@ -63,6 +63,27 @@ public class HashTest {
         assertThat(hash.key(4)).isEqualTo("8d5f");
     }
 
+    /**
+     * Test.
+     */
+    @Test
+    public void isValidKeyTest() {
+        assertThat(Hash.isValidKey("")).isTrue();
+        assertThat(Hash.isValidKey("8d5")).isTrue();
+        assertThat(Hash.isValidKey("8g5")).isFalse();
+        assertThat(Hash.isValidKey(HEXADECIMAL + HEXADECIMAL)).isFalse();
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void lowestTest() {
+        Hash lowest = Hash.lowest("8d5");
+        assertThat(lowest.key(3)).isEqualTo("8d5");
+        assertThat(lowest.asHexadecimalString()).isEqualTo("8d50000000000000000000000000000000000000");
+    }
+
     /**
      * Test.
      */
@@ -0,0 +1,86 @@
+/* 
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.common.model;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import org.elasticlib.common.hash.Hash;
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests.
+ */
+public class DigestOutputStreamTest {
+
+    /**
+     * Data provider.
+     *
+     * @return Test data.
+     */
+    @DataProvider(name = "lengths")
+    public Object[][] lengthsDataProvider() {
+        return new Object[][]{
+            {0}, {1}, {55}, {56}, {63}, {64}, {65}, {1000}, {100000}
+        };
+    }
+
+    /**
+     * Test.
+     *
+     * @param length Length of the data to digest.
+     * @throws NoSuchAlgorithmException Actually impossible.
+     */
+    @Test(dataProvider = "lengths")
+    public void getHashTest(int length) throws NoSuchAlgorithmException {
+        byte[] bytes = bytes(length);
+        DigestOutputStream output = new DigestOutputStream();
+        output.write(bytes, 0, bytes.length);
+
+        assertThat(output.getLength()).isEqualTo(length);
+        assertThat(output.getHash()).isEqualTo(expected(bytes));
+    }
+
+    /**
+     * Test.
+     *
+     * @param length Length of the data to digest.
+     * @throws NoSuchAlgorithmException Actually impossible.
+     */
+    @Test(dataProvider = "lengths")
+    public void writeWithOffsetTest(int length) throws NoSuchAlgorithmException {
+        byte[] bytes = bytes(length + 20);
+        DigestOutputStream output = new DigestOutputStream();
+        output.write(bytes, 10, length);
+
+        byte[] expected = new byte[length];
+        System.arraycopy(bytes, 10, expected, 0, length);
+        assertThat(output.getLength()).isEqualTo(length);
+        assertThat(output.getHash()).isEqualTo(expected(expected));
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static Hash expected(byte[] bytes) throws NoSuchAlgorithmException {
+        return new Hash(MessageDigest.getInstance("SHA").digest(bytes));
+    }
+}
@@ -76,7 +76,7 @@ public class ComponentsModule {
 
         remoteRepositoriesPool = new RemoteRepositoriesPool(clientManager, messageManager, remotesDao);
         repositoriesProvider = new RepositoriesProvider(localRepositoriesPool, remoteRepositoriesPool);
-        replicationAgentsPool = new ReplicationAgentsPool(config, curSeqsDao, repositoriesProvider);
+        replicationAgentsPool = new ReplicationAgentsPool(config, taskManager, curSeqsDao, repositoriesProvider);
     }
 
     /**
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.components;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import java.util.function.BooleanSupplier;
+import org.elasticlib.common.config.Config;
+import static org.elasticlib.common.config.ConfigUtil.duration;
+import static org.elasticlib.common.config.ConfigUtil.unit;
+import org.elasticlib.common.hash.Hash;
+import org.elasticlib.common.model.StagingInfo;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_CONTENT_CHUNK_DURATION;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_CONTENT_CHUNK_MAX_SIZE;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_CONTENT_CHUNK_SIZE;
+import org.elasticlib.node.repository.LocalRepository;
+import org.elasticlib.node.repository.Repository;
+
+/**
+ * Transfers contents from a repository to another one.
+ * <p>
+ * Remaining bytes of a content are read from the source in a single request, and written to the destination in
+ * successive chunks. Chunk size adapts to the measured throughput, so that writing a chunk roughly lasts a configured
+ * duration. Should a transfer fail, it resumes from the position actually staged in the destination.
+ * <p>
+ * When both repositories are local, contents are directly imported from file to file instead.
+ */
+public class ContentTransfer {
+
+    private final Config config;
+    private final Repository source;
+    private final Repository destination;
+
+    /**
+     * Constructor.
+     *
+     * @param config Configuration holder.
+     * @param source Source repository.
+     * @param destination Destination repository.
+     */
+    public ContentTransfer(Config config, Repository source, Repository destination) {
+        this.config = config;
+        this.source = source;
+        this.destination = destination;
+    }
+
+    /**
+     * Transfers a content. Leaves it staged in the destination, without adding any revision.
+     *
+     * @param content Content hash.
+     * @param length Content length.
+     * @param stopped Checked between chunks, transfer is interrupted as soon as it returns true.
+     * @return True if content has been completely transferred.
+     */
+    public boolean run(Hash content, long length, BooleanSupplier stopped) {
+        if (source instanceof LocalRepository && destination instanceof LocalRepository) {
+            ((LocalRepository) destination).importContent(content, (LocalRepository) source);
+            return true;
+        }
+        return writeContent(content, length, stopped);
+    }
+
+    private boolean writeContent(Hash content, long length, BooleanSupplier stopped) {
+        StagingInfo stagingInfo = destination.stageContent(content);
+        try {
+            stagingInfo = checkDigest(content, stagingInfo);
+            if (stagingInfo.getLength() >= length) {
+                return true;
+            }
+            long offset = stagingInfo.getLength();
+            try (InputStream inputStream = source.getContent(content, offset, length - offset)) {
+                long chunkSize = config.getInt(AGENTS_CONTENT_CHUNK_SIZE);
+                while (stagingInfo.getLength() < length) {
+                    if (stopped.getAsBoolean()) {
+                        return false;
+                    }
+                    long size = min(chunkSize, length - offset);
+                    long start = System.nanoTime();
+                    stagingInfo = destination.writeContent(content,
+                                                           stagingInfo.getSessionId(),
+                                                           new ChunkInputStream(inputStream, size),
+                                                           offset);
+
+                    if (stagingInfo.getLength() != offset + size) {
+                        // Source stream is not in sync with staged content anymore, transfer will be resumed.
+                        return false;
+                    }
+                    chunkSize = nextChunkSize(chunkSize, size, System.nanoTime() - start);
+                    offset += size;
+                }
+            }
+            return true;
+
+        } catch (IOException e) {
+            throw new AssertionError(e);
+
+        } finally {
+            destination.unstageContent(content, stagingInfo.getSessionId());
+        }
+    }
+
+    private StagingInfo checkDigest(Hash content, StagingInfo stagingInfo) throws IOException {
+        if (stagingInfo.getLength() == 0) {
+            return stagingInfo;
+        }
+        Hash expected = stagingInfo.getHash();
+        Hash actual = source.getDigest(content, 0, stagingInfo.getLength()).getHash();
+
+        return expected.equals(actual) ? stagingInfo : new StagingInfo(stagingInfo.getSessionId(), null, 0L);
+    }
+
+    private long nextChunkSize(long chunkSize, long written, long elapsedNanos) {
+        if (written < chunkSize) {
+            // Last chunk of the content, nothing to learn from it.
+            return chunkSize;
+        }
+        long duration = duration(config, AGENTS_CONTENT_CHUNK_DURATION);
+        long target = unit(config, AGENTS_CONTENT_CHUNK_DURATION).toNanos(duration);
+        long ideal = (long) ((double) written * target / max(elapsedNanos, 1));
+
+        // Smoothes changes, in order not to over-react to a single measure.
+        long next = max(chunkSize / 2, min(chunkSize * 2, ideal));
+        return max(config.getInt(AGENTS_CONTENT_CHUNK_SIZE), min(config.getLong(AGENTS_CONTENT_CHUNK_MAX_SIZE), next));
+    }
+
+    /**
+     * Exposes a given number of bytes from an underlying stream, which is left open when this stream is closed.
+     */
+    private static class ChunkInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        public ChunkInputStream(InputStream inputStream, long length) {
+            super(inputStream);
+            remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) min(len, remaining));
+            if (read != -1) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // Underlying stream is shared by successive chunks.
+        }
+    }
+}
@@ -17,7 +17,13 @@ package org.elasticlib.node.components;
 
 import java.net.URI;
 import static java.time.Instant.now;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import javax.ws.rs.ProcessingException;
 import org.elasticlib.common.hash.Guid;
@@ -68,6 +74,30 @@ public class NodePingHandler {
         }
     }
 
+    /**
+     * Calls the supplied URI and returns refreshed info of the associated node if it responds. Node info is only
+     * transferred if it differs from the supplied one.
+     *
+     * @param uri A node URI.
+     * @param current Info about the associated node, as lastly retrieved.
+     * @return Info about the associated node.
+     */
+    public Optional<RemoteInfo> ping(URI uri, NodeInfo current) {
+        try {
+            NodeInfo info = clientManager.getClient()
+                    .target(uri)
+                    .node()
+                    .getInfo(current.getTag())
+                    .orElse(current);
+
+            return Optional.of(new RemoteInfo(info, uri, now()));
+
+        } catch (ProcessingException e) {
+            EXCEPTION_HANDLER.log(uri, e);
+            return Optional.empty();
+        }
+    }
+
     /**
      * Calls the supplied URIs and returns info of the first node that responds.
      *
@@ -89,6 +119,49 @@ public class NodePingHandler {
         return ping(uris, x -> x.getGuid().equals(expected));
     }
 
+    /**
+     * Concurrently calls the supplied URIs and provides refreshed info of the first node that responds and which GUID
+     * matches the one of supplied info. Returned future completes as soon as such a node responds, or with an empty
+     * result once all calls have failed. Node info is only transferred if it differs from the supplied one.
+     * <p>
+     * Once returned future is completed, or cancelled, calls still in progress are interrupted.
+     *
+     * @param uris Some node URI(s).
+     * @param current Info about expected node, as lastly retrieved.
+     * @param executor Executor calls are performed with.
+     * @return A future info about the first reachable node which expected GUID.
+     */
+    public CompletableFuture<Optional<RemoteInfo>> ping(Iterable<URI> uris,
+                                                        NodeInfo current,
+                                                        ExecutorService executor) {
+        CompletableFuture<Optional<RemoteInfo>> result = new CompletableFuture<>();
+        List<URI> addresses = new ArrayList<>();
+        uris.forEach(addresses::add);
+        if (addresses.isEmpty()) {
+            result.complete(Optional.empty());
+            return result;
+        }
+        AtomicInteger remaining = new AtomicInteger(addresses.size());
+        List<Future<?>> calls = new ArrayList<>(addresses.size());
+        for (URI address : addresses) {
+            calls.add(executor.submit(() -> {
+                try {
+                    Optional<RemoteInfo> info = ping(address, current);
+                    if (info.isPresent() && info.get().getGuid().equals(current.getGuid())) {
+                        result.complete(info);
+                    }
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        result.complete(Optional.empty());
+                    }
+                }
+            }));
+        }
+        // Registered once all calls have been submitted, so that none of them is missed.
+        result.whenComplete((x, e) -> calls.forEach(call -> call.cancel(true)));
+        return result;
+    }
+
     private Optional<RemoteInfo> ping(Iterable<URI> uris, Predicate<RemoteInfo> predicate) {
         for (URI address : uris) {
             Optional<RemoteInfo> info = ping(address);
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.components;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import org.elasticlib.common.hash.Hash;
+import org.elasticlib.common.model.Event;
+import org.elasticlib.common.model.Partition;
+import org.elasticlib.node.repository.Repository;
+
+/**
+ * Finds out contents a source and a destination repositories are already in sync for, by comparing their partitions.
+ * <p>
+ * Partitions which have the same hash in both repositories are in sync. Other ones are recursively compared, down to
+ * a bounded key length. All the events of the source history which precede this comparison and whose content belongs
+ * to an in-sync partition are already reflected in the destination, and do not need to be replicated.
+ */
+class Reconciliation {
+
+    private static final int MAX_KEY_LENGTH = 4;
+
+    private final long seq;
+    private final Set<String> keys;
+
+    private Reconciliation(long seq, Set<String> keys) {
+        this.seq = seq;
+        this.keys = keys;
+    }
+
+    /**
+     * Provides a reconciliation which does not consider any content as in sync.
+     *
+     * @return A new Reconciliation instance.
+     */
+    public static Reconciliation none() {
+        return new Reconciliation(0, new HashSet<>());
+    }
+
+    /**
+     * Compares supplied repositories.
+     *
+     * @param source Source repository.
+     * @param destination Destination repository.
+     * @return A new Reconciliation instance.
+     */
+    public static Reconciliation of(Repository source, Repository destination) {
+        // Latest sequence value has to be read before comparing partitions.
+        List<Event> latest = source.history(false, Long.MAX_VALUE, 1);
+        long seq = latest.isEmpty() ? 0 : latest.get(0).getSeq();
+
+        Set<String> keys = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add("");
+        while (!pending.isEmpty()) {
+            String key = pending.removeFirst();
+            Map<String, Partition> partitions = partitions(destination, key);
+            for (Partition partition : source.getPartitions(key)) {
+                Partition other = partitions.get(partition.getKey());
+                if (other == null) {
+                    continue;
+                }
+                if (other.getHash().equals(partition.getHash())) {
+                    keys.add(partition.getKey());
+
+                } else if (partition.getKey().length() < MAX_KEY_LENGTH) {
+                    pending.addLast(partition.getKey());
+                }
+            }
+        }
+        return new Reconciliation(seq, keys);
+    }
+
+    private static Map<String, Partition> partitions(Repository repository, String key) {
+        return repository.getPartitions(key)
+                .stream()
+                .collect(toMap(Partition::getKey, identity()));
+    }
+
+    /**
+     * Checks if supplied source event is already reflected in the destination.
+     *
+     * @param event An event from the source history.
+     * @return True if this event does not need to be replicated.
+     */
+    public boolean isInSync(Event event) {
+        return event.getSeq() <= seq && isInSync(event.getContent());
+    }
+
+    /**
+     * Checks if supplied content was in sync when repositories were compared.
+     *
+     * @param content A content hash.
+     * @return True if this content was in sync.
+     */
+    public boolean isInSync(Hash content) {
+        for (int length = 1; length <= MAX_KEY_LENGTH; length++) {
+            if (keys.contains(content.key(length))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
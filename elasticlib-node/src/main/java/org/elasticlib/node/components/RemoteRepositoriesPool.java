@@ -86,11 +86,24 @@ public class RemoteRepositoriesPool {
      * @return Corresponding Repository GUID.
      */
     public Guid getRepositoryGuid(String key) {
-        Optional<RemoteInfo> remoteInfo = remotesDao.tryGetRemoteInfo(x -> repositoryGuid(x, key).isPresent());
-        if (!remoteInfo.isPresent()) {
+        Optional<Guid> guid;
+        if (key.contains(SEPARATOR)) {
+            // Remote node is looked up from the key, instead of checking every one.
+            guid = remotesDao.listRemoteInfos(key.substring(0, key.indexOf(SEPARATOR)))
+                    .stream()
+                    .map(x -> repositoryGuid(x, key))
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .findFirst();
+
+        } else {
+            guid = remotesDao.tryGetRemoteInfo(x -> repositoryGuid(x, key).isPresent())
+                    .flatMap(x -> repositoryGuid(x, key));
+        }
+        if (!guid.isPresent()) {
             throw new UnknownRepositoryException();
         }
-        return repositoryGuid(remoteInfo.get(), key).get();
+        return guid.get();
     }
 
     private static Optional<Guid> repositoryGuid(RemoteInfo remoteInfo, String key) {
@@ -118,7 +131,7 @@ public class RemoteRepositoriesPool {
      * @return Corresponding RepositoryDef, if any.
      */
     public Optional<RepositoryDef> tryGetRepositoryDef(Guid guid) {
-        Optional<RemoteInfo> remoteInfoOpt = remotesDao.tryGetRemoteInfo(x -> hasRepository(x, guid));
+        Optional<RemoteInfo> remoteInfoOpt = remotesDao.tryGetRemoteInfoByRepository(guid);
         if (!remoteInfoOpt.isPresent()) {
             return Optional.empty();
         }
@@ -148,7 +161,7 @@ public class RemoteRepositoriesPool {
      * @return Corresponding repository.
      */
     public Repository getRepository(Guid guid) {
-        Optional<RemoteInfo> remoteInfo = remotesDao.tryGetRemoteInfo(x -> hasRepository(x, guid));
+        Optional<RemoteInfo> remoteInfo = remotesDao.tryGetRemoteInfoByRepository(guid);
         if (!remoteInfo.isPresent()) {
             throw new UnknownRepositoryException();
         }
@@ -168,7 +181,7 @@ public class RemoteRepositoriesPool {
      * @return Corresponding repository, if any.
      */
     public Optional<Repository> tryGetRepository(Guid guid) {
-        Optional<RemoteInfo> remoteInfo = remotesDao.tryGetRemoteInfo(x -> hasRepository(x, guid));
+        Optional<RemoteInfo> remoteInfo = remotesDao.tryGetRemoteInfoByRepository(guid);
         if (!remoteInfo.isPresent()) {
             return Optional.empty();
         }
@@ -197,12 +210,20 @@ public class RemoteRepositoriesPool {
                     .repositories()
                     .get(guid);
 
+            RepositoryTarget feed = clientManager.getFeedClient()
+                    .target(remoteInfo.getTransportUri())
+                    .repositories()
+                    .get(guid);
+
             RepositoryDef repositoryDef = repositoryDefs(remoteInfo)
                     .filter(x -> x.getGuid().equals(guid))
                     .findFirst()
                     .get();
 
-            repositories.put(guid, new RemoteRepository(target, name(remoteInfo, repositoryDef)));
+            repositories.put(guid, new RemoteRepository(target,
+                                                         feed,
+                                                         clientManager.getPollTimeout(),
+                                                         name(remoteInfo, repositoryDef)));
         }
         return repositories.get(guid);
     }
@@ -219,10 +240,6 @@ public class RemoteRepositoriesPool {
         repositories.remove(guid).close();
     }
 
-    private static boolean hasRepository(RemoteInfo remoteInfo, Guid guid) {
-        return repositoryDefs(remoteInfo).anyMatch(x -> x.getGuid().equals(guid));
-    }
-
     private static Stream<RepositoryDef> repositoryDefs(RemoteInfo remoteInfo) {
         return remoteInfo.listRepositoryInfos()
                 .stream()
@@ -15,107 +15,410 @@
  */
 package org.elasticlib.node.components;
 
-import java.io.IOException;
-import java.io.InputStream;
+import com.google.common.base.Supplier;
+import static com.google.common.base.Suppliers.memoize;
+import static com.google.common.collect.Iterables.getLast;
 import static java.lang.Math.min;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import org.elasticlib.common.config.Config;
+import org.elasticlib.common.exception.IOFailureException;
+import org.elasticlib.common.exception.NodeException;
+import org.elasticlib.common.exception.RepositoryClosedException;
+import org.elasticlib.common.exception.UnexpectedFailureException;
+import org.elasticlib.common.exception.UnreachableNodeException;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.hash.Hash;
+import org.elasticlib.common.model.ContentInfo;
 import org.elasticlib.common.model.ContentState;
 import org.elasticlib.common.model.Event;
+import org.elasticlib.common.model.Operation;
 import org.elasticlib.common.model.RevisionTree;
-import org.elasticlib.common.model.StagingInfo;
-import static org.elasticlib.node.config.NodeConfig.AGENTS_CONTENT_CHUNK_SIZE;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_BATCH_SIZE;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_HISTORY_FETCH_SIZE;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_REPLICATION_BOOTSTRAP;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_REPLICATION_CONCURRENCY;
 import org.elasticlib.node.dao.CurSeqsDao;
+import org.elasticlib.node.manager.task.TaskManager;
+import org.elasticlib.node.manager.task.TaskType;
 import org.elasticlib.node.repository.Agent;
+import org.elasticlib.node.repository.RemoteRepository;
 import org.elasticlib.node.repository.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * An agent that performs replication from a repository to another one.
+ * <p>
+ * Contents are transferred by a {@link ContentTransfer}. When both repositories are remote, destination node is instead
+ * asked to directly import contents from the source node. Should destination node not support imports, or not reach
+ * source node, contents are relayed through this node instead.
+ * <p>
+ * Info updates and deletions are processed apart from creations, so that they are not held up behind large content
+ * transfers. Should one of them actually require a content transfer, it is handed over to creation workers.
+ * <p>
+ * Revision trees which do not require any content transfer are not merged one by one. They are deferred and then
+ * merged in bulk, at the latest before agent progress is persisted. Should a bulk merge fail, deferred trees are merged
+ * one by one, and the events whose tree still fails to merge are processed again.
+ * <p>
+ * A new replication first compares source and destination partitions, and skips past events about the contents both
+ * repositories are already in sync for. Unless disabled, it also directly transfers current revision trees and contents
+ * of the source, and then only replays the events which happened after, instead of the whole source history. Should a
+ * content still fail to transfer after a few spaced out attempts, it falls back to replaying the whole source history.
+ * <p>
+ * Changes in a local source are notified by messaging. When source is remote, this agent instead subscribes to its
+ * history feed, and is signaled as soon as new events happen on the remote node. Should this subscription fail, it is
+ * renewed after an exponentially increasing delay.
  */
 class ReplicationAgent extends Agent {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicationAgent.class);
+    private static final int MAX_RESUBSCRIBE_DELAY = 64;
+    private static final int MAX_BOOTSTRAP_ATTEMPTS = 3;
+
     private final Config config;
+    private final TaskManager taskManager;
     private final Repository source;
     private final Repository destination;
+    private final Supplier<Reconciliation> reconciliation;
+    private final List<DeferredTree> deferred = new ArrayList<>();
+    private final Set<Event> failed = new HashSet<>();
+    private boolean bootstrapFailed;
+    private final ContentTransfer transfer;
+    private volatile boolean delegating;
+    private CompletableFuture<List<Event>> subscription;
+    private int resubscribeDelay = 1;
+    private boolean released;
 
     /**
      * Constructor.
      *
      * @param guid Replication guid.
      * @param config Configuration holder.
+     * @param taskManager Asynchronous tasks manager.
      * @param source Source repository.
      * @param destination Destination repository.
      * @param curSeqsDao The agents sequences DAO.
      * @param curSeqKey The key persisted agent curSeq value is associated with in curSeqsDao.
+     * @param reconcile If true, source and destination partitions are compared before processing any event.
      */
     public ReplicationAgent(Guid guid,
                             Config config,
+                            TaskManager taskManager,
                             Repository source,
                             Repository destination,
                             CurSeqsDao curSeqsDao,
-                            String curSeqKey) {
+                            String curSeqKey,
+                            boolean reconcile) {
 
         super("replication-" + guid.asHexadecimalString(), config, source, curSeqsDao, curSeqKey);
 
         this.config = config;
+        this.taskManager = taskManager;
         this.source = source;
         this.destination = destination;
+        transfer = new ContentTransfer(config, source, destination);
+
+        // When both repositories are remote, contents do not have to transit through this node.
+        delegating = source instanceof RemoteRepository && destination instanceof RemoteRepository;
+        if (reconcile) {
+            reconciliation = memoize(() -> Reconciliation.of(source, destination));
+        } else {
+            reconciliation = Reconciliation::none;
+        }
+        if (source instanceof RemoteRepository) {
+            subscribe(1);
+        }
+    }
+
+    private synchronized void subscribe(long first) {
+        if (released) {
+            return;
+        }
+        try {
+            subscription = source.awaitHistory(first, 1);
+
+        } catch (NodeException e) {
+            LOG.warn("Failed to subscribe to source history", e);
+            resubscribe(first);
+            return;
+        }
+        subscription.whenComplete((events, e) -> {
+            if (isReleased()) {
+                return;
+            }
+            // On failure, agent will itself fail if source is actually not available anymore.
+            signal();
+            if (e != null) {
+                LOG.warn("Source history subscription failed", e);
+                resubscribe(first);
+                return;
+            }
+            subscribed(events.get(0).getSeq() + 1);
+        });
+    }
+
+    private synchronized void subscribed(long next) {
+        resubscribeDelay = 1;
+        subscribe(next);
+    }
+
+    private synchronized void resubscribe(long first) {
+        long delay = resubscribeDelay;
+        resubscribeDelay = min(2 * resubscribeDelay, MAX_RESUBSCRIBE_DELAY);
+        String description = "Resubscribing to source history";
+        taskManager.execute(TaskType.MESSAGING, delay, SECONDS, description, () -> subscribe(first));
+    }
+
+    private synchronized boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    protected synchronized void release() {
+        released = true;
+        if (subscription != null) {
+            subscription.cancel(false);
+        }
+    }
+
+    @Override
+    protected int concurrency() {
+        return config.getInt(AGENTS_REPLICATION_CONCURRENCY);
+    }
+
+    @Override
+    protected boolean coalesce() {
+        // Only latest tree of a content matters, and it is fetched from source anyway.
+        return true;
+    }
+
+    @Override
+    protected boolean isLight(Event event) {
+        // Only creations usually involve a content transfer. Others are handed over if content is missing.
+        return event.getOperation() != Operation.CREATE;
+    }
+
+    @Override
+    protected long bootstrap(long curSeq) {
+        if (curSeq != 0 || !config.getBoolean(AGENTS_REPLICATION_BOOTSTRAP)) {
+            return curSeq;
+        }
+        // Latest sequence value has to be read before source trees.
+        List<Event> latest = source.history(false, Long.MAX_VALUE, 1);
+        if (latest.isEmpty()) {
+            return curSeq;
+        }
+        try {
+            int size = config.getInt(AGENTS_HISTORY_FETCH_SIZE);
+            Hash last = null;
+            List<RevisionTree> trees = source.getTrees(Hash.lowest(""), size);
+            while (!trees.isEmpty()) {
+                for (RevisionTree tree : trees) {
+                    if (!tree.getContent().equals(last) && !bootstrap(tree)) {
+                        return curSeq;
+                    }
+                }
+                if (trees.size() < size) {
+                    break;
+                }
+                last = getLast(trees).getContent();
+                trees = source.getTrees(last, size);
+            }
+            synchronized (deferred) {
+                mergeDeferred();
+                if (bootstrapFailed) {
+                    LOG.warn("Failed to merge bootstrapped trees, replaying source history instead");
+                    return curSeq;
+                }
+            }
+            return latest.get(0).getSeq();
+
+        } catch (IOFailureException |
+                UnexpectedFailureException |
+                RepositoryClosedException |
+                UnreachableNodeException e) {
+            throw e;
+
+        } catch (NodeException e) {
+            LOG.warn("Failed to bootstrap replication, replaying source history instead", e);
+            return curSeq;
+        }
+    }
+
+    private boolean bootstrap(RevisionTree tree) {
+        if (reconciliation.get().isInSync(tree.getContent())) {
+            return true;
+        }
+        for (int attempt = 1; attempt <= MAX_BOOTSTRAP_ATTEMPTS && !isStopped(); attempt++) {
+            if (replicate(tree, Optional.empty())) {
+                return true;
+            }
+            if (attempt < MAX_BOOTSTRAP_ATTEMPTS) {
+                pause(attempt);
+            }
+        }
+        LOG.warn("Failed to bootstrap content {}, replaying source history instead", tree.getContent());
+        return false;
     }
 
     @Override
     protected boolean process(Event event) {
-        RevisionTree srcTree = source.getTree(event.getContent());
-        ContentState destState = destination.getContentInfo(event.getContent()).getState();
+        if (reconciliation.get().isInSync(event)) {
+            return true;
+        }
+        return replicate(source.getTree(event.getContent()), Optional.of(event));
+    }
+
+    private boolean replicate(RevisionTree srcTree, Optional<Event> event) {
+        ContentState destState = destination.getContentInfo(srcTree.getContent()).getState();
         if (!srcTree.isDeleted() && destState != ContentState.STAGED && destState != ContentState.PRESENT) {
+            if (handOver()) {
+                // Content is missing in destination, this event is not light anymore.
+                return false;
+            }
             if (destState == ContentState.STAGING) {
                 pause(10);
                 return false;
             }
-            if (!writeContent(srcTree.getContent(), srcTree.getLength())) {
+            if (delegating) {
+                if (!delegate(srcTree.getContent())) {
+                    return false;
+                }
+            } else if (!transfer.run(srcTree.getContent(), srcTree.getLength(), this::isStopped)) {
                 return false;
             }
         }
-        destination.mergeTree(srcTree);
+        if (srcTree.isDeleted() || destState == ContentState.PRESENT) {
+            defer(new DeferredTree(srcTree, event));
+        } else {
+            destination.mergeTree(srcTree);
+        }
         return true;
     }
 
-    private boolean writeContent(Hash content, long length) {
-        StagingInfo stagingInfo = destination.stageContent(content);
+    private boolean delegate(Hash content) {
         try {
-            stagingInfo = checkDigest(content, stagingInfo);
-            while (stagingInfo.getLength() < length) {
-                if (isStopped()) {
-                    return false;
-                }
-                stagingInfo = writeChunk(content, length, stagingInfo);
+            Guid guid = source.getDef().getGuid();
+            Optional<ContentInfo> info;
+            try {
+                info = ((RemoteRepository) destination).importContent(content, guid);
+
+            } catch (UnexpectedFailureException e) {
+                // Reported by destination node, import is retried after a while, still delegated.
+                LOG.warn("Destination failed to import content " + content, e);
+                pause(10);
+                return false;
             }
-            return true;
+            if (!info.isPresent()) {
+                LOG.warn("Destination can not import contents from source, relaying contents instead");
+                delegating = false;
+                return false;
+            }
+            ContentState state = info.get().getState();
+            if (state == ContentState.ABSENT) {
+                // Destination declined import, as it has too many ones pending.
+                pause(10);
+            }
+            // If import is still in progress, destination state is staging when retried.
+            return state == ContentState.STAGED || state == ContentState.PRESENT;
 
-        } catch (IOException e) {
-            throw new AssertionError(e);
+        } catch (IOFailureException |
+                UnexpectedFailureException |
+                RepositoryClosedException |
+                UnreachableNodeException e) {
+            throw e;
 
-        } finally {
-            destination.unstageContent(content, stagingInfo.getSessionId());
+        } catch (NodeException e) {
+            LOG.warn("Destination failed to import content " + content, e);
+            return false;
         }
     }
 
-    private StagingInfo checkDigest(Hash content, StagingInfo stagingInfo) throws IOException {
-        if (stagingInfo.getLength() == 0) {
-            return stagingInfo;
+    private void defer(DeferredTree tree) {
+        synchronized (deferred) {
+            deferred.add(tree);
+            if (deferred.size() >= config.getInt(AGENTS_BATCH_SIZE)) {
+                mergeDeferred();
+            }
         }
-        Hash expected = stagingInfo.getHash();
-        Hash actual = source.getDigest(content, 0, stagingInfo.getLength()).getHash();
+    }
 
-        return expected.equals(actual) ? stagingInfo : new StagingInfo(stagingInfo.getSessionId(), null, 0L);
+    @Override
+    protected Set<Event> flush() {
+        synchronized (deferred) {
+            mergeDeferred();
+            Set<Event> result = new HashSet<>(failed);
+            failed.clear();
+            return result;
+        }
     }
 
-    private StagingInfo writeChunk(Hash content, long totalLength, StagingInfo stagingInfo) throws IOException {
-        long offset = stagingInfo.getLength();
-        long length = min(config.getInt(AGENTS_CONTENT_CHUNK_SIZE), totalLength - offset);
+    private void mergeDeferred() {
+        if (deferred.isEmpty()) {
+            return;
+        }
+        // Deferred trees are only discarded once merged, so that a fatal failure does not lose any of them.
+        List<RevisionTree> trees = new ArrayList<>(deferred.size());
+        deferred.forEach(x -> trees.add(x.tree));
+        try {
+            destination.mergeTrees(trees);
+
+        } catch (IOFailureException |
+                UnexpectedFailureException |
+                RepositoryClosedException |
+                UnreachableNodeException e) {
+            throw e;
+
+        } catch (NodeException e) {
+            LOG.warn("Failed to merge deferred trees in bulk, merging them one by one", e);
+            deferred.forEach(this::merge);
+        }
+        deferred.clear();
+    }
+
+    private void merge(DeferredTree deferredTree) {
+        try {
+            destination.mergeTree(deferredTree.tree);
+
+        } catch (IOFailureException |
+                UnexpectedFailureException |
+                RepositoryClosedException |
+                UnreachableNodeException e) {
+            throw e;
+
+        } catch (NodeException e) {
+            LOG.warn("Failed to merge tree of " + deferredTree.tree.getContent(), e);
+            if (deferredTree.event.isPresent()) {
+                failed.add(deferredTree.event.get());
+            } else {
+                bootstrapFailed = true;
+            }
+        }
+    }
+
+    /**
+     * A revision tree deferred for merging, along with the event it has been fetched for, if any.
+     */
+    private static class DeferredTree {
+
+        private final RevisionTree tree;
+        private final Optional<Event> event;
 
-        try (InputStream inputStream = source.getContent(content, offset, length)) {
-            return destination.writeContent(content, stagingInfo.getSessionId(), inputStream, offset);
+        /**
+         * Constructor.
+         *
+         * @param tree Revision tree to merge.
+         * @param event Event this tree has been fetched for. Empty for bootstrapped trees.
+         */
+        public DeferredTree(RevisionTree tree, Optional<Event> event) {
+            this.tree = tree;
+            this.event = event;
         }
     }
 }
@@ -16,14 +16,17 @@
 package org.elasticlib.node.components;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.elasticlib.common.config.Config;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.model.AgentInfo;
 import org.elasticlib.common.model.AgentState;
 import org.elasticlib.common.model.ReplicationDef;
 import org.elasticlib.node.dao.CurSeqsDao;
+import org.elasticlib.node.manager.task.TaskManager;
 import org.elasticlib.node.repository.Agent;
 import org.elasticlib.node.repository.Repository;
 
@@ -33,19 +36,26 @@ import org.elasticlib.node.repository.Repository;
 public class ReplicationAgentsPool {
 
     private final Config config;
+    private final TaskManager taskManager;
     private final CurSeqsDao curSeqsDao;
     private final RepositoriesProvider repositoriesProvider;
     private final Map<Guid, Agent> agents = new HashMap<>();
+    private final Set<Guid> created = new HashSet<>();
 
     /**
      * Constructor.
      *
      * @param config Configuration holder.
+     * @param taskManager Asynchronous tasks manager.
      * @param curSeqsDao The agents sequences DAO.
      * @param repositoriesProvider Repositories provider.
      */
-    public ReplicationAgentsPool(Config config, CurSeqsDao curSeqsDao, RepositoriesProvider repositoriesProvider) {
+    public ReplicationAgentsPool(Config config,
+                                 TaskManager taskManager,
+                                 CurSeqsDao curSeqsDao,
+                                 RepositoriesProvider repositoriesProvider) {
         this.config = config;
+        this.taskManager = taskManager;
         this.curSeqsDao = curSeqsDao;
         this.repositoriesProvider = repositoriesProvider;
     }
@@ -73,6 +83,7 @@ public class ReplicationAgentsPool {
     public void createAgent(ReplicationDef def) {
         // Ensures agent won't see a stale value.
         curSeqsDao.delete(def.getGuid().asHexadecimalString());
+        created.add(def.getGuid());
         tryStartAgent(def);
     }
 
@@ -117,7 +128,16 @@ public class ReplicationAgentsPool {
     }
 
     private void startAgent(Guid guid, Repository source, Repository destination) {
-        Agent agent = new ReplicationAgent(guid, config, source, destination, curSeqsDao, guid.asHexadecimalString());
+        // Only a new replication compares its repositories, before it starts processing source history.
+        boolean reconcile = created.remove(guid);
+        Agent agent = new ReplicationAgent(guid,
+                                           config,
+                                           taskManager,
+                                           source,
+                                           destination,
+                                           curSeqsDao,
+                                           guid.asHexadecimalString(),
+                                           reconcile);
         Agent previous = agents.put(guid, agent);
         if (previous != null) {
             previous.stop();
@@ -144,6 +164,7 @@ public class ReplicationAgentsPool {
      */
     public void deleteAgent(Guid guid) {
         stopAgent(guid);
+        created.remove(guid);
         curSeqsDao.delete(guid.asHexadecimalString());
     }
 
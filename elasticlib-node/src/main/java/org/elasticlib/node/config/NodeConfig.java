@@ -59,7 +59,8 @@ public final class NodeConfig {
      */
     public static final String CLIENT_CONNECT_TIMEOUT = "client.connectTimeout";
     /**
-     * HTTP client read timeout. Infinite if empty.
+     * HTTP client read timeout. Infinite if empty. Remote history feeds are polled for half of this timeout, or 20
+     * seconds if it is infinite.
      */
     public static final String CLIENT_READ_TIMEOUT = "client.readTimeout";
     /**
@@ -123,6 +124,11 @@ public final class NodeConfig {
      * Remote nodes ping task scheduling interval.
      */
     public static final String REMOTES_PING_INTERVAL = "remotes.ping.interval";
+    /**
+     * Maximum number of remote nodes URIs called concurrently when pinging remote nodes. Remote nodes which have not
+     * responded once a ping interval has elapsed are considered unreachable.
+     */
+    public static final String REMOTES_PING_POOL_SIZE = "remotes.ping.poolSize";
     /**
      * Whether unreachable remote nodes are automatically removed.
      */
@@ -136,17 +142,54 @@ public final class NodeConfig {
      */
     public static final String REMOTES_CLEANUP_EXPIRATION = "remotes.cleanup.expiration";
     /**
-     * Asynchronous tasks executor pool size.
+     * Housekeeping tasks executor pool size.
      */
     public static final String TASKS_POOL_SIZE = "tasks.poolSize";
+    /**
+     * Messaging tasks executor pool size. Messages are only processed in order if this size is 1.
+     */
+    public static final String TASKS_MESSAGING_POOL_SIZE = "tasks.messaging.poolSize";
+    /**
+     * Content transfer tasks executor pool size.
+     */
+    public static final String TASKS_TRANSFERS_POOL_SIZE = "tasks.transfers.poolSize";
+    /**
+     * Maximum number of content imports, queued or running. Further imports are declined until some complete.
+     */
+    public static final String TASKS_TRANSFERS_MAX_PENDING = "tasks.transfers.maxPending";
+    /**
+     * Index commits and storage syncs tasks executor pool size.
+     */
+    public static final String TASKS_SYNC_POOL_SIZE = "tasks.sync.poolSize";
     /**
      * Number of history events to fetch each time an agent processing queue is empty.
      */
     public static final String AGENTS_HISTORY_FETCH_SIZE = "agents.historyFetchSize";
+    /**
+     * Maximum number of events an agent processes before persisting its progress.
+     */
+    public static final String AGENTS_BATCH_SIZE = "agents.batchSize";
     /**
      * Chunk size used for content replications, in bytes.
      */
     public static final String AGENTS_CONTENT_CHUNK_SIZE = "agents.contentChunkSize";
+    /**
+     * Maximum chunk size used for content replications, in bytes. Actual chunk size adapts to the measured throughput,
+     * from contentChunkSize up to this value.
+     */
+    public static final String AGENTS_CONTENT_CHUNK_MAX_SIZE = "agents.contentChunkMaxSize";
+    /**
+     * Targeted duration of the transfer of a chunk during content replications.
+     */
+    public static final String AGENTS_CONTENT_CHUNK_DURATION = "agents.contentChunkDuration";
+    /**
+     * Maximum number of contents a replication agent transfers concurrently.
+     */
+    public static final String AGENTS_REPLICATION_CONCURRENCY = "agents.replicationConcurrency";
+    /**
+     * If true, a new replication first transfers current state of its source, instead of replaying its whole history.
+     */
+    public static final String AGENTS_REPLICATION_BOOTSTRAP = "agents.replicationBootstrap";
     /**
      * Maximum number of suspended content staging sessions.
      */
@@ -171,6 +214,30 @@ public final class NodeConfig {
      * Periodicity at which deffered databases are flushed.
      */
     public static final String STORAGE_SYNC_INTERVAL = "storage.sync.interval";
+    /**
+     * Durability of committed transactions. Allowed values are "sync", "writeNoSync" and "noSync".
+     */
+    public static final String STORAGE_DURABILITY = "storage.durability";
+    /**
+     * Whether concurrent synchronous commits share a single log synchronisation.
+     */
+    public static final String STORAGE_GROUP_COMMIT_ENABLED = "storage.groupCommit.enabled";
+    /**
+     * Whether pending index changes are periodically committed.
+     */
+    public static final String INDEX_COMMIT_ENABLED = "index.commit.enabled";
+    /**
+     * Periodicity at which pending index changes are committed.
+     */
+    public static final String INDEX_COMMIT_INTERVAL = "index.commit.interval";
+    /**
+     * Number of workers extracting and indexing contents concurrently, per repository.
+     */
+    public static final String INDEX_EXTRACTION_POOL_SIZE = "index.extraction.poolSize";
+    /**
+     * Maximum number of revisions held in the cache of revision trees, per repository.
+     */
+    public static final String REVISIONS_CACHE_MAX_SIZE = "revisions.cache.maxSize";
 
     private static final Logger LOG = LoggerFactory.getLogger(NodeConfig.class);
 
@@ -58,7 +58,7 @@ public class AttributesDao {
             return asGuid(value);
         }
         Guid newGuid = Guid.random();
-        attributes.put(storageManager.currentTransaction(), key, entry(newGuid));
+        attributes.put(storageManager.currentWriteTransaction(), key, entry(newGuid));
         return newGuid;
     }
 }
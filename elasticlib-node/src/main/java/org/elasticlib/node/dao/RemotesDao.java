@@ -19,13 +19,22 @@ import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.LockMode;
 import com.sleepycat.je.OperationStatus;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.Predicate;
+import static java.util.stream.Collectors.toList;
 import org.elasticlib.common.exception.NodeAlreadyTrackedException;
 import org.elasticlib.common.exception.UnknownNodeException;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.model.RemoteInfo;
+import org.elasticlib.common.model.RepositoryInfo;
 import static org.elasticlib.node.manager.storage.DatabaseEntries.asMappable;
 import static org.elasticlib.node.manager.storage.DatabaseEntries.entry;
 import org.elasticlib.node.manager.storage.DatabaseStream;
@@ -33,6 +42,10 @@ import org.elasticlib.node.manager.storage.StorageManager;
 
 /**
  * Provides a persistent storage for remote node infos.
+ * <p>
+ * Stored infos are also cached in memory, along with an index of their names and one of the remote repositories they
+ * reference. This cache is loaded on first lookup and then updated as soon as writes are committed, so that lookups do
+ * not have to scan and deserialize stored infos.
  */
 public class RemotesDao {
 
@@ -40,6 +53,11 @@ public class RemotesDao {
 
     private final StorageManager storageManager;
     private final Database remoteInfos;
+    private final Object lock = new Object();
+    private final Map<String, SortedSet<Guid>> names = new HashMap<>();
+    private final Map<Guid, Guid> repositories = new HashMap<>();
+    private Map<Guid, RemoteInfo> cache;
+    private long version;
 
     /**
      * Constructor.
@@ -76,7 +94,8 @@ public class RemotesDao {
         DatabaseEntry key = entry(info.getGuid());
         DatabaseEntry value = new DatabaseEntry();
         OperationStatus retrieval = remoteInfos.get(storageManager.currentTransaction(), key, value, LockMode.RMW);
-        remoteInfos.put(storageManager.currentTransaction(), key, entry(info));
+        remoteInfos.put(storageManager.currentWriteTransaction(), key, entry(info));
+        storageManager.onCommit(() -> cachePut(info));
         if (retrieval == OperationStatus.SUCCESS) {
             return Optional.of(asMappable(value, RemoteInfo.class));
         }
@@ -89,13 +108,14 @@ public class RemotesDao {
      * @param info RemoteInfo to save.
      */
     public void createRemoteInfo(RemoteInfo info) {
-        OperationStatus status = remoteInfos.putNoOverwrite(storageManager.currentTransaction(),
+        OperationStatus status = remoteInfos.putNoOverwrite(storageManager.currentWriteTransaction(),
                                                             entry(info.getGuid()),
                                                             entry(info));
 
         if (status == OperationStatus.KEYEXIST) {
             throw new NodeAlreadyTrackedException();
         }
+        storageManager.onCommit(() -> cachePut(info));
     }
 
     /**
@@ -110,12 +130,15 @@ public class RemotesDao {
             DatabaseEntry v = new DatabaseEntry();
             OperationStatus retrieval = remoteInfos.get(storageManager.currentTransaction(), k, v, LockMode.RMW);
             if (retrieval == OperationStatus.SUCCESS) {
-                remoteInfos.delete(storageManager.currentTransaction(), k);
-                return asMappable(v, RemoteInfo.class);
+                remoteInfos.delete(storageManager.currentWriteTransaction(), k);
+                RemoteInfo deleted = asMappable(v, RemoteInfo.class);
+                storageManager.onCommit(() -> cacheRemove(deleted));
+                return deleted;
             }
         }
         Optional<RemoteInfo> deleted = stream().first((cursor, info) -> {
             if (info.getName().equals(key)) {
+                storageManager.markWritten();
                 cursor.delete();
                 return true;
             }
@@ -124,6 +147,7 @@ public class RemotesDao {
         if (!deleted.isPresent()) {
             throw new UnknownNodeException();
         }
+        storageManager.onCommit(() -> cacheRemove(deleted.get()));
         return deleted.get();
     }
 
@@ -135,7 +159,9 @@ public class RemotesDao {
     public void deleteRemoteInfos(Predicate<RemoteInfo> predicate) {
         stream().each((cursor, info) -> {
             if (predicate.test(info)) {
+                storageManager.markWritten();
                 cursor.delete();
+                storageManager.onCommit(() -> cacheRemove(info));
             }
         });
     }
@@ -157,7 +183,128 @@ public class RemotesDao {
      * @return Matching remote node info, if any.
      */
     public Optional<RemoteInfo> tryGetRemoteInfo(Predicate<RemoteInfo> predicate) {
-        return stream().first(predicate);
+        return cached().values()
+                .stream()
+                .filter(predicate)
+                .findFirst();
+    }
+
+    /**
+     * Loads the RemoteInfo(s) of the node(s) with supplied name or GUID. Several nodes may share the same name.
+     *
+     * @param key Node name or encoded GUID.
+     * @return Matching remote node infos, ordered by GUID.
+     */
+    public List<RemoteInfo> listRemoteInfos(String key) {
+        Map<Guid, RemoteInfo> infos = cached();
+        if (Guid.isValid(key) && infos.containsKey(new Guid(key))) {
+            return singletonList(infos.get(new Guid(key)));
+        }
+        synchronized (lock) {
+            if (cache != null) {
+                SortedSet<Guid> nodes = names.get(key);
+                return nodes == null ? emptyList() : nodes.stream().map(cache::get).collect(toList());
+            }
+        }
+        // Cache could not be loaded, falls back to a lookup among loaded infos.
+        return infos.values()
+                .stream()
+                .filter(info -> info.getName().equals(key))
+                .collect(toList());
+    }
+
+    /**
+     * Loads the RemoteInfo of the node which hosts the repository with supplied GUID, if any.
+     *
+     * @param guid A repository GUID.
+     * @return Corresponding remote node info, if any.
+     */
+    public Optional<RemoteInfo> tryGetRemoteInfoByRepository(Guid guid) {
+        Map<Guid, RemoteInfo> infos = cached();
+        synchronized (lock) {
+            if (cache != null) {
+                Guid node = repositories.get(guid);
+                return node == null ? Optional.empty() : Optional.of(cache.get(node));
+            }
+        }
+        // Cache could not be loaded, falls back to a lookup among loaded infos.
+        return infos.values()
+                .stream()
+                .filter(info -> info.listRepositoryInfos()
+                        .stream()
+                        .anyMatch(x -> x.getDef().getGuid().equals(guid)))
+                .findFirst();
+    }
+
+    private Map<Guid, RemoteInfo> cached() {
+        long expected;
+        synchronized (lock) {
+            if (cache != null) {
+                return cache;
+            }
+            expected = version;
+        }
+        Map<Guid, RemoteInfo> infos = new TreeMap<>();
+        stream().each(info -> infos.put(info.getGuid(), info));
+        synchronized (lock) {
+            // Loaded infos are only cached if no write has been committed in the meantime.
+            if (cache == null && version == expected) {
+                cache = infos;
+                infos.values().forEach(this::index);
+            }
+        }
+        return infos;
+    }
+
+    private void cachePut(RemoteInfo info) {
+        synchronized (lock) {
+            version++;
+            if (cache == null) {
+                return;
+            }
+            // Cache is copied on write, so that it may be safely read without holding the lock.
+            Map<Guid, RemoteInfo> updated = new TreeMap<>(cache);
+            RemoteInfo previous = updated.put(info.getGuid(), info);
+            cache = updated;
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(info);
+        }
+    }
+
+    private void cacheRemove(RemoteInfo info) {
+        synchronized (lock) {
+            version++;
+            if (cache == null) {
+                return;
+            }
+            Map<Guid, RemoteInfo> updated = new TreeMap<>(cache);
+            RemoteInfo previous = updated.remove(info.getGuid());
+            cache = updated;
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+    }
+
+    private void index(RemoteInfo info) {
+        names.computeIfAbsent(info.getName(), name -> new TreeSet<>()).add(info.getGuid());
+        info.listRepositoryInfos()
+                .stream()
+                .map(RepositoryInfo::getDef)
+                .forEach(def -> repositories.put(def.getGuid(), info.getGuid()));
+    }
+
+    private void unindex(RemoteInfo info) {
+        SortedSet<Guid> nodes = names.get(info.getName());
+        if (nodes != null && nodes.remove(info.getGuid()) && nodes.isEmpty()) {
+            names.remove(info.getName());
+        }
+        info.listRepositoryInfos()
+                .stream()
+                .map(RepositoryInfo::getDef)
+                .forEach(def -> repositories.remove(def.getGuid(), info.getGuid()));
     }
 
     private DatabaseStream<RemoteInfo> stream() {
@@ -60,7 +60,7 @@ public class ReplicationsDao {
                 x.getDestination().equals(def.getDestination()))) {
             throw new ReplicationAlreadyExistsException();
         }
-        replicationDefs.put(storageManager.currentTransaction(), entry(def.getGuid()), entry(def));
+        replicationDefs.put(storageManager.currentWriteTransaction(), entry(def.getGuid()), entry(def));
     }
 
     /**
@@ -69,7 +69,7 @@ public class ReplicationsDao {
      * @param guid Replication GUID.
      */
     public void deleteReplicationDef(Guid guid) {
-        OperationStatus status = replicationDefs.delete(storageManager.currentTransaction(), entry(guid));
+        OperationStatus status = replicationDefs.delete(storageManager.currentWriteTransaction(), entry(guid));
         if (status != OperationStatus.SUCCESS) {
             throw new UnknownReplicationException();
         }
@@ -132,6 +132,7 @@ public class ReplicationsDao {
     public void deleteReplicationDefs(Guid repositoryGuid, Consumer<ReplicationDef> cleanup) {
         stream().each((cursor, def) -> {
             if (def.getSource().equals(repositoryGuid) || def.getDestination().equals(repositoryGuid)) {
+                storageManager.markWritten();
                 cursor.delete();
                 cleanup.accept(def);
             }
@@ -55,7 +55,7 @@ public class RepositoriesDao {
      * @param def RepositoryDef to create.
      */
     public void createRepositoryDef(RepositoryDef def) {
-        OperationStatus status = repositoryDefs.putNoOverwrite(storageManager.currentTransaction(),
+        OperationStatus status = repositoryDefs.putNoOverwrite(storageManager.currentWriteTransaction(),
                                                                entry(def.getGuid()),
                                                                entry(def));
         if (status == OperationStatus.KEYEXIST) {
@@ -69,7 +69,7 @@ public class RepositoriesDao {
      * @param def RepositoryDef to update.
      */
     public void updateRepositoryDef(RepositoryDef def) {
-        repositoryDefs.put(storageManager.currentTransaction(), entry(def.getGuid()), entry(def));
+        repositoryDefs.put(storageManager.currentWriteTransaction(), entry(def.getGuid()), entry(def));
     }
 
     /**
@@ -79,7 +79,7 @@ public class RepositoriesDao {
      * @return If corresponding RepositoryDef has been found and deleted.
      */
     public boolean deleteRepositoryDef(Guid guid) {
-        return repositoryDefs.delete(storageManager.currentTransaction(), entry(guid)) == OperationStatus.SUCCESS;
+        return repositoryDefs.delete(storageManager.currentWriteTransaction(), entry(guid)) == OperationStatus.SUCCESS;
     }
 
     /**
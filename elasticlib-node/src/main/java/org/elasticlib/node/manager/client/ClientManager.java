@@ -30,13 +30,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Provides node HTTP client.
+ * Provides node HTTP clients.
+ * <p>
+ * History feeds are long-polled through a dedicated client, with its own connection pool, so that pending polls never
+ * starve other requests of connections, and conversely.
  */
 public class ClientManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(ClientManager.class);
+    private static final long DEFAULT_POLL_TIMEOUT = 20_000;
 
     private final Client client;
+    private final Client feedClient;
+    private final long pollTimeout;
 
     /**
      * Constructor.
@@ -51,6 +57,19 @@ public class ClientManager {
                 .withMaxConnections(config.getInt(CLIENT_MAX_CONNECTIONS))
                 .withMaxConnectionsPerRoute(config.getInt(CLIENT_MAX_CONNECTIONS_PER_ROUTE))
                 .build();
+
+        // There is a single feed per polled repository, so connections are not limited per route.
+        feedClient = new ClientBuilder()
+                .withLoggingHandler(new ClientLoggingHandler(LOG))
+                .withConnectTimeout(millis(config, CLIENT_CONNECT_TIMEOUT))
+                .withReadTimeout(millis(config, CLIENT_READ_TIMEOUT))
+                .withMaxConnections(config.getInt(CLIENT_MAX_CONNECTIONS))
+                .withMaxConnectionsPerRoute(config.getInt(CLIENT_MAX_CONNECTIONS))
+                .build();
+
+        // Remote side has to answer a poll well before client gives up reading the response.
+        int readTimeout = millis(config, CLIENT_READ_TIMEOUT);
+        pollTimeout = readTimeout == 0 ? DEFAULT_POLL_TIMEOUT : readTimeout / 2;
     }
 
     private static int millis(Config config, String key) {
@@ -69,10 +88,30 @@ public class ClientManager {
         return client;
     }
 
+    /**
+     * Provides the HTTP client dedicated to history feeds polling.
+     *
+     * @return A client.
+     */
+    public Client getFeedClient() {
+        return feedClient;
+    }
+
+    /**
+     * Provides the time remote nodes are asked to hold a history feed poll for, when no new event happens. This time is
+     * lower than clients read timeout.
+     *
+     * @return A duration in milliseconds.
+     */
+    public long getPollTimeout() {
+        return pollTimeout;
+    }
+
     /**
      * Stops this manager.
      */
     public void stop() {
         client.close();
+        feedClient.close();
     }
 }
@@ -20,13 +20,16 @@ import static com.google.common.base.CaseFormat.UPPER_CAMEL;
 import static java.util.Collections.emptySet;
 import java.util.HashMap;
 import java.util.Map;
+import static java.util.Objects.hash;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.node.manager.task.TaskManager;
+import org.elasticlib.node.manager.task.TaskType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +50,7 @@ public class MessageManager {
     private final TaskManager taskManager;
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private final Map<Class<?>, Set<Action<?>>> actions = new HashMap<>();
+    private final Set<Delivery> pendingDeliveries = ConcurrentHashMap.newKeySet();
 
     /**
      * Constructor.
@@ -106,6 +110,10 @@ public class MessageManager {
     /**
      * Posts a message, applying all previously registered actions to its type. Each action is asynchronously applied in
      * a separate task.
+     * <p>
+     * If the message is coalescable and an equal message is still waiting to be delivered to a given action, it is not
+     * delivered again to this action. Therefore, at most one such message is queued at a time per message type,
+     * repository and action.
      *
      * @param message The message to post.
      */
@@ -113,10 +121,33 @@ public class MessageManager {
     public void post(Object message) {
         LOG.info("Receiving [{}]", format(message.getClass()));
         actions(message.getClass()).forEach((Action action) -> {
-            taskManager.execute(action.description(), () -> action.apply(message));
+            if (!isCoalescable(message)) {
+                taskManager.execute(TaskType.MESSAGING, action.description(), () -> action.apply(message));
+                return;
+            }
+            Delivery delivery = new Delivery(message, action);
+            if (!pendingDeliveries.add(delivery)) {
+                LOG.debug("Coalescing [{}] => {}", format(message.getClass()), action.description());
+                return;
+            }
+            try {
+                taskManager.execute(TaskType.MESSAGING, action.description(), () -> {
+                    // Removed before applying, so that a message posted meanwhile is not lost.
+                    pendingDeliveries.remove(delivery);
+                    action.apply(message);
+                });
+            } catch (RuntimeException e) {
+                // Not queued, so that subsequent equal messages must not be coalesced with this one.
+                pendingDeliveries.remove(delivery);
+                throw e;
+            }
         });
     }
 
+    private static boolean isCoalescable(Object message) {
+        return message instanceof RepositoryChangeMessage && ((RepositoryChangeMessage) message).isCoalescable();
+    }
+
     private <T> Set<Action<?>> actions(Class<T> messageType) {
         lock.readLock().lock();
         try {
@@ -133,4 +164,32 @@ public class MessageManager {
     private static String format(Class<?> messageType) {
         return UPPER_CAMEL.to(LOWER_HYPHEN, messageType.getSimpleName());
     }
+
+    /**
+     * A message waiting to be delivered to a given action.
+     */
+    private static final class Delivery {
+
+        private final Object message;
+        private final Action<?> action;
+
+        public Delivery(Object message, Action<?> action) {
+            this.message = message;
+            this.action = action;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash(message, action);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Delivery other = (Delivery) obj;
+            return message.equals(other.message) && action.equals(other.action);
+        }
+    }
 }
@@ -30,4 +30,15 @@ public final class NewRepositoryEvent extends RepositoryChangeMessage {
     public NewRepositoryEvent(Guid repositoryGuid) {
         super(repositoryGuid);
     }
+
+    /**
+     * Such a message is only a signal that something new happened in a repository. Posting it again while a previous
+     * one has not yet been dispatched does not carry any additional information.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isCoalescable() {
+        return true;
+    }
 }
@@ -43,6 +43,16 @@ public abstract class RepositoryChangeMessage {
         return repositoryGuid;
     }
 
+    /**
+     * Indicates whether this message may be coalesced with an equal message which is still waiting to be dispatched.
+     * Defaults to false.
+     *
+     * @return true if this message may be coalesced.
+     */
+    public boolean isCoalescable() {
+        return false;
+    }
+
     @Override
     public int hashCode() {
         return hash(repositoryGuid);
@@ -0,0 +1,104 @@
+/* 
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.manager.storage;
+
+import com.sleepycat.je.Environment;
+
+/**
+ * Coalesces log synchronisations of concurrently committed transactions.
+ * <p>
+ * Transactions are expected to be committed without synchronisation. Afterwards, each committing thread requests a
+ * synchronisation of the log. The first requesting thread performs an actual synchronisation on behalf of all the
+ * threads having committed so far. Threads that commit while a synchronisation is in progress wait for it to complete
+ * and let the next one cover them.
+ */
+class GroupCommit {
+
+    private final Environment environment;
+    private long committed;
+    private long synced;
+    private long syncs;
+    private boolean syncing;
+
+    /**
+     * Constructor.
+     *
+     * @param environment Underlying JE environment.
+     */
+    public GroupCommit(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Registers a commit. Must be called right after the commit of a transaction.
+     *
+     * @return A ticket to supply to {@link #sync(long)}.
+     */
+    public synchronized long committed() {
+        committed++;
+        return committed;
+    }
+
+    /**
+     * @return The number of log synchronisations actually performed so far.
+     */
+    public synchronized long getSyncs() {
+        return syncs;
+    }
+
+    /**
+     * Ensures that the log is synchronized up to the commit associated to supplied ticket, waiting if needed.
+     *
+     * @param ticket A ticket, as returned by {@link #committed()}.
+     */
+    public void sync(long ticket) {
+        long target;
+        synchronized (this) {
+            boolean interrupted = false;
+            while (synced < ticket && syncing) {
+                try {
+                    wait();
+
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (synced >= ticket) {
+                return;
+            }
+            syncing = true;
+            target = committed;
+        }
+        boolean done = false;
+        try {
+            environment.flushLog(true);
+            done = true;
+
+        } finally {
+            synchronized (this) {
+                if (done) {
+                    synced = target;
+                    syncs++;
+                }
+                syncing = false;
+                notifyAll();
+            }
+        }
+    }
+}
@@ -20,8 +20,13 @@ import com.sleepycat.je.Cursor;
 import com.sleepycat.je.CursorConfig;
 import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.Durability;
 import com.sleepycat.je.Environment;
 import com.sleepycat.je.EnvironmentConfig;
+import com.sleepycat.je.SecondaryConfig;
+import com.sleepycat.je.SecondaryCursor;
+import com.sleepycat.je.SecondaryDatabase;
+import com.sleepycat.je.SecondaryKeyCreator;
 import com.sleepycat.je.Sequence;
 import com.sleepycat.je.SequenceConfig;
 import com.sleepycat.je.Transaction;
@@ -33,6 +38,7 @@ import java.util.Deque;
 import java.util.Map.Entry;
 import java.util.function.Supplier;
 import org.elasticlib.common.config.Config;
+import org.elasticlib.common.config.ConfigException;
 import static org.elasticlib.common.config.ConfigUtil.duration;
 import static org.elasticlib.common.config.ConfigUtil.unit;
 import org.elasticlib.common.exception.RepositoryClosedException;
@@ -42,6 +48,7 @@ import org.elasticlib.node.config.NodeConfig;
 import static org.elasticlib.node.manager.storage.DatabaseEntries.entry;
 import org.elasticlib.node.manager.task.Task;
 import org.elasticlib.node.manager.task.TaskManager;
+import org.elasticlib.node.manager.task.TaskType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,18 +63,27 @@ import org.slf4j.LoggerFactory;
  * transaction scope. Note that suspended transactions are automatically evicted if they are not resumed after a given
  * expiration delay.
  * <p>
+ * Durability of committed transactions is configurable. When group commit is enabled, transactions requiring a
+ * synchronous commit are actually committed without synchronisation, and concurrently committing threads then share a
+ * single log synchronisation before returning.
+ * <p>
  * This class is thread-safe and can be safely accessed by multiple concurrent threads.
  */
 public class StorageManager {
 
     private static final String JE = "je";
     private static final String SEQUENCE = "sequence";
+    private static final String SYNC = "sync";
+    private static final String WRITE_NO_SYNC = "writeNoSync";
+    private static final String NO_SYNC = "noSync";
     private static final Logger LOG = LoggerFactory.getLogger(StorageManager.class);
 
     private final String envName;
     private final Config config;
     private final TaskManager taskManager;
     private final Environment environment;
+    private final TransactionConfig txConfig;
+    private final GroupCommit groupCommit;
     private final Deque<Task> tasks = new ArrayDeque<>();
     private final Deque<Database> databases = new ArrayDeque<>();
     private final Deque<Sequence> sequences = new ArrayDeque<>();
@@ -102,6 +118,30 @@ public class StorageManager {
         this.config = config;
         this.taskManager = taskManager;
         this.environment = new Environment(path.toFile(), envConfig);
+
+        Durability durability = durability(config);
+        if (durability == Durability.COMMIT_SYNC && config.getBoolean(NodeConfig.STORAGE_GROUP_COMMIT_ENABLED)) {
+            txConfig = new TransactionConfig().setDurability(Durability.COMMIT_WRITE_NO_SYNC);
+            groupCommit = new GroupCommit(environment);
+        } else {
+            txConfig = new TransactionConfig().setDurability(durability);
+            groupCommit = null;
+        }
+    }
+
+    private static Durability durability(Config config) {
+        String value = config.getString(NodeConfig.STORAGE_DURABILITY);
+        switch (value) {
+            case SYNC:
+                return Durability.COMMIT_SYNC;
+            case WRITE_NO_SYNC:
+                return Durability.COMMIT_WRITE_NO_SYNC;
+            case NO_SYNC:
+                return Durability.COMMIT_NO_SYNC;
+            default:
+                throw new ConfigException("Key " + NodeConfig.STORAGE_DURABILITY + " is expected to be one of " +
+                        String.join(", ", SYNC, WRITE_NO_SYNC, NO_SYNC));
+        }
     }
 
     /**
@@ -174,7 +214,8 @@ public class StorageManager {
                                          .setDeferredWrite(true));
 
         if (config.getBoolean(NodeConfig.STORAGE_SYNC_ENABLED)) {
-            tasks.add(taskManager.schedule(duration(config, NodeConfig.STORAGE_SYNC_INTERVAL),
+            tasks.add(taskManager.schedule(TaskType.SYNC,
+                                           duration(config, NodeConfig.STORAGE_SYNC_INTERVAL),
                                            unit(config, NodeConfig.STORAGE_SYNC_INTERVAL),
                                            "[" + envName + "] Syncing database '" + name + "'",
                                            database::sync));
@@ -182,6 +223,35 @@ public class StorageManager {
         return database;
     }
 
+    /**
+     * Opens a secondary database with supplied name, indexing records of supplied primary database. If this secondary
+     * database does not exist, it is created and populated from existing primary records. Secondary keys are expected
+     * to be non-unique, duplicates being sorted by primary keys.
+     *
+     * @param name Secondary database name.
+     * @param primary Primary database.
+     * @param keyCreator Creates secondary keys from primary records.
+     * @return Corresponding secondary database handle.
+     */
+    public synchronized SecondaryDatabase openSecondaryDatabase(String name,
+                                                                Database primary,
+                                                                SecondaryKeyCreator keyCreator) {
+        ensureStarted();
+        SecondaryConfig secondaryConfig = new SecondaryConfig();
+        secondaryConfig.setAllowCreate(true)
+                .setKeyPrefixing(true)
+                .setSortedDuplicates(true)
+                .setTransactional(true);
+        secondaryConfig.setAllowPopulate(true)
+                .setKeyCreator(keyCreator);
+
+        SecondaryDatabase secondary = environment.openSecondaryDatabase(null, name, primary, secondaryConfig);
+
+        // Secondary databases have to be closed before their primary.
+        databases.addFirst(secondary);
+        return secondary;
+    }
+
     private Database openDatabase(String name, DatabaseConfig config) {
         ensureStarted();
         Database database = environment.openDatabase(null, name, config);
@@ -240,11 +310,19 @@ public class StorageManager {
         TransactionContext ctx = beginTransaction();
         try {
             T result = query.get();
+            long ticket = 0;
             synchronized (this) {
                 if (started) {
                     ctx.commit();
+                    // Read-only transactions have nothing to make durable.
+                    if (groupCommit != null && ctx.isWritten()) {
+                        ticket = groupCommit.committed();
+                    }
                 }
             }
+            if (ticket != 0) {
+                groupCommit.sync(ticket);
+            }
             return result;
 
         } catch (IllegalStateException e) {
@@ -264,7 +342,7 @@ public class StorageManager {
         ensureStarted();
         checkState(currentTxContext.get() == null, "Nested transactions are not supported");
 
-        TransactionContext ctx = new TransactionContext(environment.beginTransaction(null, TransactionConfig.DEFAULT));
+        TransactionContext ctx = new TransactionContext(environment.beginTransaction(null, txConfig));
         txContexts.add(ctx);
         currentTxContext.set(ctx);
         return ctx;
@@ -288,6 +366,44 @@ public class StorageManager {
         return currentTxContext.get().getTransaction();
     }
 
+    /**
+     * @return The number of log synchronisations performed by group commit so far, zero if it is disabled.
+     */
+    long getGroupCommitSyncs() {
+        return groupCommit == null ? 0 : groupCommit.getSyncs();
+    }
+
+    /**
+     * Provides access to the transaction attached to current thread, in order to write with it. Fails if no pending
+     * transaction is attached to current thread. See {@link #markWritten()}.
+     *
+     * @return A transaction.
+     */
+    public Transaction currentWriteTransaction() {
+        markWritten();
+        return currentTransaction();
+    }
+
+    /**
+     * Marks the transaction attached to current thread as a write one. When group commit is enabled, only write
+     * transactions wait for the log to be synced once committed. Writes performed through a cursor have to be marked
+     * this way. Fails if no pending transaction is attached to current thread.
+     */
+    public void markWritten() {
+        currentTxContext.get().setWritten();
+    }
+
+    /**
+     * Registers an action to run once the transaction attached to current thread is committed. Actions are not run if
+     * this transaction is aborted. Actions of successive transactions are run in commit order, while this manager lock
+     * is held, so they are expected to be short and to not call this manager.
+     *
+     * @param action An action.
+     */
+    public void onCommit(Runnable action) {
+        currentTxContext.get().onCommit(action);
+    }
+
     /**
      * Opens a cursor on supplied database.
      * <p>
@@ -311,6 +427,20 @@ public class StorageManager {
         return cursor;
     }
 
+    /**
+     * Opens a cursor on supplied secondary database. Same isolation rules apply as for primary database cursors.
+     *
+     * @param database a secondary database.
+     * @return A new cursor.
+     */
+    public synchronized SecondaryCursor openCursor(SecondaryDatabase database) {
+        ensureStarted();
+        TransactionContext ctx = currentTxContext.get();
+        SecondaryCursor cursor = database.openCursor(ctx.getTransaction(), CursorConfig.READ_COMMITTED);
+        ctx.add(cursor);
+        return cursor;
+    }
+
     /**
      * Provides a stream on the supplied database.
      *
@@ -17,7 +17,9 @@ package org.elasticlib.node.manager.storage;
 
 import com.sleepycat.je.Cursor;
 import com.sleepycat.je.Transaction;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 import static java.util.Objects.hash;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
@@ -28,7 +30,9 @@ class TransactionContext {
 
     private final Transaction transaction;
     private final Deque<Cursor> cursors = new ConcurrentLinkedDeque<>();
+    private final List<Runnable> commitActions = new ArrayList<>();
     private boolean closed;
+    private volatile boolean written;
 
     /**
      * Constructor.
@@ -46,6 +50,20 @@ class TransactionContext {
         return transaction;
     }
 
+    /**
+     * Marks underlying transaction as a write one.
+     */
+    public void setWritten() {
+        written = true;
+    }
+
+    /**
+     * @return True if underlying transaction has been marked as a write one.
+     */
+    public boolean isWritten() {
+        return written;
+    }
+
     /**
      * Associates a cursor to this context.
      *
@@ -58,12 +76,26 @@ class TransactionContext {
         cursors.add(cursor);
     }
 
+    /**
+     * Registers an action to run once underlying transaction is committed.
+     *
+     * @param action An action.
+     */
+    public synchronized void onCommit(Runnable action) {
+        if (closed) {
+            throw new IllegalStateException();
+        }
+        commitActions.add(action);
+    }
+
     /**
      * Commit underlying transaction and close all previously associated cursors, unless this context is already closed.
+     * Then runs registered commit actions.
      */
     public synchronized void commit() {
         if (close()) {
             transaction.commit();
+            commitActions.forEach(Runnable::run);
         }
     }
 
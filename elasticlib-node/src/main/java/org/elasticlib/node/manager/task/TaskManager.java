@@ -15,20 +15,28 @@
  */
 package org.elasticlib.node.manager.task;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import static java.util.concurrent.Executors.defaultThreadFactory;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import static java.util.stream.Collectors.toList;
 import org.elasticlib.common.config.Config;
-import static org.elasticlib.node.config.NodeConfig.TASKS_POOL_SIZE;
+import org.elasticlib.common.model.TaskStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Provides asynchronous tasks execution infrastructure.
+ * <p>
+ * Tasks are executed by a distinct queue per task type, each one with its own pool of threads. Number of queued tasks,
+ * along with time spent waiting and running, are measured per task type.
  */
 public class TaskManager {
 
@@ -36,7 +44,7 @@ public class TaskManager {
     private static final String FAILURE = " - Failure";
     private static final Logger LOG = LoggerFactory.getLogger(TaskManager.class);
 
-    private final ScheduledExecutorService executor;
+    private final Map<TaskType, TaskQueue> queues = new EnumMap<>(TaskType.class);
 
     /**
      * Constructor.
@@ -44,33 +52,40 @@ public class TaskManager {
      * @param config Configuration holder.
      */
     public TaskManager(Config config) {
-        executor = newScheduledThreadPool(config.getInt(TASKS_POOL_SIZE), new NamedThreadFactory());
+        for (TaskType type : TaskType.values()) {
+            queues.put(type, new TaskQueue(type, config.getInt(type.getPoolSizeKey())));
+        }
     }
 
     /**
      * Asynchronously execute the given task.
      *
+     * @param type Task type.
      * @param description Task short description, intended for logging purposes.
      * @param task The task to executes
      */
-    public void execute(String description, Runnable task) {
-        executor.execute(() -> {
-            LOG.info(description);
-            try {
-                task.run();
-                LOG.debug(description + SUCCESS);
+    public void execute(TaskType type, String description, Runnable task) {
+        queues.get(type).execute(0, NANOSECONDS, description, task);
+    }
 
-            } catch (Exception e) {
-                LOG.error(description + FAILURE, e);
-            }
-        });
+    /**
+     * Asynchronously execute the given task, once supplied delay has elapsed.
+     *
+     * @param type Task type.
+     * @param delay The time to wait before executing the task.
+     * @param unit The time unit of the delay parameter.
+     * @param description Task short description, intended for logging purposes.
+     * @param task The task to executes
+     */
+    public void execute(TaskType type, long delay, TimeUnit unit, String description, Runnable task) {
+        queues.get(type).execute(delay, unit, description, task);
     }
 
     /**
-     * Schedules execution of supplied task at periodic interval. If any execution of the task encounters an exception,
-     * subsequent executions are suppressed. Otherwise, the task will only terminate via cancellation or when this
-     * service is closed. If any execution of this task takes longer than its period, then subsequent executions may
-     * start late, but will not concurrently execute.
+     * Schedules execution of supplied housekeeping task at periodic interval. If any execution of the task encounters
+     * an exception, subsequent executions are suppressed. Otherwise, the task will only terminate via cancellation or
+     * when this service is closed. If any execution of this task takes longer than its period, then subsequent
+     * executions may start late, but will not concurrently execute.
      *
      * @param interval The duration between successive executions.
      * @param unit The time unit of the interval parameter.
@@ -79,14 +94,107 @@ public class TaskManager {
      * @return A task handle.
      */
     public Task schedule(long interval, TimeUnit unit, String description, Runnable task) {
-        return new Task(executor.scheduleAtFixedRate(new LoggedRunnable(description, task), 0, interval, unit));
+        return schedule(TaskType.HOUSEKEEPING, interval, unit, description, task);
+    }
+
+    /**
+     * Schedules execution of supplied task at periodic interval, as {@link #schedule(long, TimeUnit, String, Runnable)}
+     * does, but with the queue of supplied task type.
+     *
+     * @param type Task type.
+     * @param interval The duration between successive executions.
+     * @param unit The time unit of the interval parameter.
+     * @param description Task short description, intended for logging purposes.
+     * @param task The task to executes
+     * @return A task handle.
+     */
+    public Task schedule(TaskType type, long interval, TimeUnit unit, String description, Runnable task) {
+        return queues.get(type).schedule(interval, unit, description, task);
+    }
+
+    /**
+     * Provides statistics about executed tasks.
+     *
+     * @return A snapshot of current statistics, per task type.
+     */
+    public List<TaskStats> stats() {
+        return queues.values()
+                .stream()
+                .map(TaskQueue::stats)
+                .collect(toList());
     }
 
     /**
      * Stops this manager, gracefully cancelling all scheduled tasks before.
      */
     public void stop() {
-        executor.shutdown();
+        queues.values().forEach(TaskQueue::stop);
+    }
+
+    /**
+     * Executes tasks of a given type and measures them.
+     */
+    private static class TaskQueue {
+
+        private final TaskType type;
+        private final ScheduledExecutorService executor;
+        private final AtomicLong queued = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong waitTime = new AtomicLong();
+        private final AtomicLong runTime = new AtomicLong();
+
+        public TaskQueue(TaskType type, int poolSize) {
+            this.type = type;
+            executor = newScheduledThreadPool(poolSize, new NamedThreadFactory(type));
+        }
+
+        public void execute(long delay, TimeUnit unit, String description, Runnable task) {
+            // Delay is not accounted as waiting time.
+            long submitted = System.nanoTime() + unit.toNanos(delay);
+            queued.incrementAndGet();
+            executor.schedule(() -> {
+                queued.decrementAndGet();
+                waitTime.addAndGet(System.nanoTime() - submitted);
+                measure(() -> {
+                    LOG.info(description);
+                    try {
+                        task.run();
+                        LOG.debug(description + SUCCESS);
+
+                    } catch (Exception e) {
+                        LOG.error(description + FAILURE, e);
+                    }
+                });
+            }, delay, unit);
+        }
+
+        public Task schedule(long interval, TimeUnit unit, String description, Runnable task) {
+            LoggedRunnable runnable = new LoggedRunnable(description, task);
+            return new Task(executor.scheduleAtFixedRate(() -> measure(runnable), 0, interval, unit));
+        }
+
+        private void measure(Runnable runnable) {
+            long start = System.nanoTime();
+            try {
+                runnable.run();
+
+            } finally {
+                runTime.addAndGet(System.nanoTime() - start);
+                completed.incrementAndGet();
+            }
+        }
+
+        public TaskStats stats() {
+            return new TaskStats(type.toString(),
+                                 queued.get(),
+                                 completed.get(),
+                                 NANOSECONDS.toMillis(waitTime.get()),
+                                 NANOSECONDS.toMillis(runTime.get()));
+        }
+
+        public void stop() {
+            executor.shutdown();
+        }
     }
 
     /**
@@ -96,11 +204,16 @@ public class TaskManager {
 
         private final ThreadFactory defaultFactory = defaultThreadFactory();
         private final AtomicInteger counter = new AtomicInteger();
+        private final TaskType type;
+
+        public NamedThreadFactory(TaskType type) {
+            this.type = type;
+        }
 
         @Override
         public Thread newThread(Runnable runnable) {
             Thread thread = defaultFactory.newThread(runnable);
-            thread.setName("task-" + counter.incrementAndGet());
+            thread.setName(type + "-" + counter.incrementAndGet());
             return thread;
         }
     }
@@ -0,0 +1,63 @@
+/* 
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.manager.task;
+
+import static org.elasticlib.node.config.NodeConfig.TASKS_MESSAGING_POOL_SIZE;
+import static org.elasticlib.node.config.NodeConfig.TASKS_POOL_SIZE;
+import static org.elasticlib.node.config.NodeConfig.TASKS_SYNC_POOL_SIZE;
+import static org.elasticlib.node.config.NodeConfig.TASKS_TRANSFERS_POOL_SIZE;
+
+/**
+ * Types of asynchronous tasks. Each type has its own queue and its own pool of threads, so that tasks of a given type
+ * are never queued behind tasks of another one.
+ */
+public enum TaskType {
+
+    /**
+     * Reactions to messages, such as signaling agents or opening repositories. Latency-sensitive.
+     */
+    MESSAGING(TASKS_MESSAGING_POOL_SIZE),
+    /**
+     * Content transfers. Long-running and I/O-bound.
+     */
+    TRANSFERS(TASKS_TRANSFERS_POOL_SIZE),
+    /**
+     * Periodic durability tasks, such as index commits and storage syncs. Not held up behind housekeeping ones.
+     */
+    SYNC(TASKS_SYNC_POOL_SIZE),
+    /**
+     * Periodic housekeeping, such as remote nodes pings, discovery and cleanups.
+     */
+    HOUSEKEEPING(TASKS_POOL_SIZE);
+
+    private final String poolSizeKey;
+
+    private TaskType(String poolSizeKey) {
+        this.poolSizeKey = poolSizeKey;
+    }
+
+    /**
+     * @return The config key of the size of the threads pool executing tasks of this type.
+     */
+    String getPoolSizeKey() {
+        return poolSizeKey;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
@@ -17,23 +17,38 @@ package org.elasticlib.node.repository;
 
 import static com.google.common.collect.Iterables.getLast;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import static java.util.Collections.emptySet;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import static java.util.stream.Collectors.toSet;
 import org.elasticlib.common.config.Config;
 import org.elasticlib.common.exception.IOFailureException;
 import org.elasticlib.common.exception.NodeException;
 import org.elasticlib.common.exception.RepositoryClosedException;
 import org.elasticlib.common.exception.UnexpectedFailureException;
 import org.elasticlib.common.exception.UnreachableNodeException;
+import org.elasticlib.common.hash.Hash;
 import org.elasticlib.common.model.AgentInfo;
 import org.elasticlib.common.model.AgentState;
 import org.elasticlib.common.model.Event;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_BATCH_SIZE;
 import static org.elasticlib.node.config.NodeConfig.AGENTS_HISTORY_FETCH_SIZE;
 import org.elasticlib.node.dao.CurSeqsDao;
 import org.slf4j.Logger;
@@ -48,9 +63,11 @@ public abstract class Agent {
 
     private final Lock lock = new ReentrantLock();
     private final Condition condition = lock.newCondition();
+    private final Condition pauseCondition = lock.newCondition();
     private final Repository repository;
     private final AgentThread agentThread;
     private boolean signaled;
+    private boolean progressed;
     private boolean stopped;
 
     /**
@@ -75,6 +92,72 @@ public abstract class Agent {
      */
     protected abstract boolean process(Event event);
 
+    /**
+     * Provides the maximum number of events this agent processes concurrently. Returns 1 by default, in which case
+     * events are processed one at a time by agent thread. Otherwise, they are processed by a pool of workers. Events
+     * about a given content are still processed in order, and agent progress only advances up to the latest event that
+     * has been processed along with all the previous ones.
+     *
+     * @return A strictly positive number.
+     */
+    protected int concurrency() {
+        return 1;
+    }
+
+    /**
+     * Checks whether a given event is expected to be quickly processed. When events are processed concurrently, such
+     * events are handed to a dedicated pool of workers, so that they are not held up behind lengthy ones. Should one
+     * of them turn out to be lengthy, it may still be handed over to regular workers, see {@link #handOver()}. Returns
+     * false by default.
+     *
+     * @param event An event from tracked repository history.
+     * @return True if supplied event is expected to be quickly processed.
+     */
+    protected boolean isLight(Event event) {
+        return false;
+    }
+
+    /**
+     * Checks whether this agent only cares about the latest event of a given content. If this is the case, an event
+     * which has not been processed yet is dropped as soon as a latter event about the same content is fetched. Returns
+     * false by default.
+     *
+     * @return True if events may be coalesced.
+     */
+    protected boolean coalesce() {
+        return false;
+    }
+
+    /**
+     * Callback called when processing thread starts, before any event is processed. Does nothing by default. Agents
+     * which are able to catch up with the tracked repository without replaying its whole history should do it here.
+     *
+     * @param curSeq Sequence value of the latest event processed so far.
+     * @return Sequence value of the latest event whose effects are reflected once this operation completes.
+     */
+    protected long bootstrap(long curSeq) {
+        return curSeq;
+    }
+
+    /**
+     * Callback called once a batch of events has been processed, before agent progress is persisted. Does nothing by
+     * default. Agents that defer their writes should make them durable here.
+     *
+     * @return The processed events whose deferred writes failed. These events are processed again, and agent progress
+     * is not persisted past them.
+     */
+    protected Set<Event> flush() {
+        return emptySet();
+    }
+
+    /**
+     * Callback called when processing thread terminates, whatever the reason. Does nothing by default. Agents that
+     * hold additional resources should release them here.
+     */
+    protected void release() {
+        // Nothing to do by default.
+    }
+
     /**
      * Checks whether this agent has been stopped.
      *
@@ -90,6 +173,17 @@ public abstract class Agent {
         }
     }
 
+    /**
+     * Hands the event being processed by calling thread over to regular workers, because it turns out not to be
+     * quickly processed. Processing should then return false right away, and this event is processed again by a
+     * regular worker. Does nothing and returns false unless calling thread is a light events worker.
+     *
+     * @return True if event has been handed over.
+     */
+    protected boolean handOver() {
+        return agentThread.handOver();
+    }
+
     /**
      * Causes processing thread to wait.
      *
@@ -116,7 +210,8 @@ public abstract class Agent {
         lock.lock();
         try {
             stopped = true;
-            condition.signal();
+            condition.signalAll();
+            pauseCondition.signalAll();
 
         } finally {
             lock.unlock();
@@ -136,7 +231,7 @@ public abstract class Agent {
         lock.lock();
         try {
             signaled = true;
-            condition.signal();
+            condition.signalAll();
 
         } finally {
             lock.unlock();
@@ -162,7 +257,10 @@ public abstract class Agent {
         private final String curSeqKey;
         private final Deque<Event> events;
         private final AtomicReference<AgentInfo> info;
+        private final ThreadLocal<PendingEvent> processing = new ThreadLocal<>();
         private long curSeq;
+        private long fetchedSeq;
+        private long queuedSeq;
         private long maxSeq;
 
         /**
@@ -193,15 +291,20 @@ public abstract class Agent {
         public final void run() {
             try {
                 curSeq = curSeqsDao.load(curSeqKey);
-                Optional<Event> nextEvent = next();
-                while (nextEvent.isPresent()) {
-                    Event event = nextEvent.get();
-                    if (!tryProcess(event)) {
-                        events.addFirst(event);
-                    } else {
-                        updateCurSeq(event.getSeq());
-                    }
-                    nextEvent = next();
+                long bootstrapSeq = bootstrap(curSeq);
+                if (bootstrapSeq != curSeq && flush().isEmpty()) {
+                    updateCurSeq(bootstrapSeq);
+                }
+                fetchedSeq = curSeq;
+                int concurrency = concurrency();
+                if (concurrency > 1) {
+                    processConcurrently(concurrency);
+                    return;
+                }
+                List<Event> batch = nextBatch();
+                while (!batch.isEmpty()) {
+                    processBatch(batch);
+                    batch = nextBatch();
                 }
             } catch (RepositoryClosedException e) {
                 LOG.info("Repository closed, stopping");
@@ -214,6 +317,219 @@ public abstract class Agent {
             } catch (NodeException e) {
                 LOG.error("Unexpected error, stopping", e);
                 updateInfo(AgentState.ERROR);
+
+            } finally {
+                release();
+            }
+        }
+
+        private void processBatch(List<Event> batch) {
+            int processed = 0;
+            while (processed < batch.size() && tryProcess(batch.get(processed))) {
+                processed++;
+            }
+            if (processed > 0) {
+                Set<Event> failed = flush();
+                for (int i = 0; i < processed; i++) {
+                    if (failed.contains(batch.get(i))) {
+                        processed = i;
+                        break;
+                    }
+                }
+            }
+            // Failed event and following ones will be retried.
+            for (int i = batch.size() - 1; i >= processed; i--) {
+                events.addFirst(batch.get(i));
+            }
+            if (processed > 0) {
+                updateCurSeq(batch.get(processed - 1).getSeq());
+            }
+        }
+
+        private void processConcurrently(int concurrency) {
+            ExecutorService executor = newFixedThreadPool(concurrency, threadFactory(getName() + "-"));
+            ExecutorService lightExecutor = newFixedThreadPool(concurrency, threadFactory(getName() + "-light-"));
+            try {
+                // Events not processed yet, being processed or waiting for a previous event about the same content, in
+                // sequence order. Succeeded events are removed once flushed, even if previous ones are still being
+                // processed.
+                Deque<PendingEvent> window = new ArrayDeque<>();
+                queuedSeq = curSeq;
+                int windowSize = config.getInt(AGENTS_BATCH_SIZE);
+                while (true) {
+                    fill(window, windowSize);
+                    if (window.isEmpty()) {
+                        return;
+                    }
+                    submit(window, executor, lightExecutor);
+                    awaitProgress(window.size() < windowSize);
+                    if (isStopped()) {
+                        executor.shutdown();
+                        lightExecutor.shutdown();
+                        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+                        lightExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+                        advance(window, windowSize);
+                        return;
+                    }
+                    advance(window, windowSize);
+                }
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+
+            } finally {
+                executor.shutdownNow();
+                lightExecutor.shutdownNow();
+            }
+        }
+
+        private ThreadFactory threadFactory(String prefix) {
+            AtomicInteger counter = new AtomicInteger();
+            return runnable -> new Thread(runnable, prefix + counter.incrementAndGet());
+        }
+
+        private void fill(Deque<PendingEvent> window, int windowSize) {
+            while (window.size() < windowSize) {
+                Event event = nextEvent(window.isEmpty());
+                if (event == null) {
+                    return;
+                }
+                boolean light = isLight(event);
+                if (coalesce()) {
+                    // Superseded events are not processed, but are considered as succeeded, as this latest event
+                    // carries their work. Progress may then advance past them, but not past this latest event until it
+                    // succeeds.
+                    for (PendingEvent pending : window) {
+                        if (pending.future == null && pending.event.getContent().equals(event.getContent())) {
+                            light &= pending.light;
+                            pending.supersede();
+                        }
+                    }
+                }
+                window.addLast(new PendingEvent(event, queuedSeq, light));
+                queuedSeq = event.getSeq();
+            }
+        }
+
+        private void submit(Deque<PendingEvent> window, ExecutorService executor, ExecutorService lightExecutor) {
+            Set<Hash> busy = new HashSet<>();
+            for (PendingEvent pending : window) {
+                if (pending.isFailed() && !isStopped()) {
+                    pending.reset();
+                }
+                Hash content = pending.event.getContent();
+                if (pending.future == null && !busy.contains(content)) {
+                    FutureTask<Boolean> task = new FutureTask<Boolean>(() -> tryProcess(pending)) {
+                        @Override
+                        protected void done() {
+                            // Signaled only once completed, so that agent thread may not miss this outcome.
+                            signalProgress();
+                        }
+                    };
+                    pending.future = task;
+                    (pending.light ? lightExecutor : executor).execute(task);
+                }
+                if (pending.future == null || !pending.future.isDone()) {
+                    busy.add(content);
+                }
+            }
+        }
+
+        private void advance(Deque<PendingEvent> window, int windowSize) {
+            // Unless progress may be persisted, flushing waits for succeeded events to fill half of the window, so
+            // that it is not performed once per event.
+            Set<PendingEvent> succeeded = window.stream().filter(PendingEvent::isSucceeded).collect(toSet());
+            boolean progress = !window.isEmpty() && window.peekFirst().isSucceeded();
+            if (succeeded.isEmpty() || (!progress && 2 * succeeded.size() < windowSize)) {
+                return;
+            }
+            retry(window, flush());
+
+            // Events which completed while flushing may have deferred writes which have not been flushed yet.
+            window.removeIf(pending -> succeeded.contains(pending) && pending.isSucceeded());
+
+            // Progress is only persisted up to the latest event preceding the oldest one which is not succeeded.
+            long lastSeq = window.isEmpty() ? queuedSeq : window.peekFirst().previousSeq;
+            if (lastSeq != curSeq) {
+                updateCurSeq(lastSeq);
+            }
+        }
+
+        private void retry(Deque<PendingEvent> window, Set<Event> failed) {
+            if (failed.isEmpty()) {
+                return;
+            }
+            // When events are coalesced, a failed event does not need to be retried if a latter one about the same
+            // content follows, as this latter one will be retried as well should it fail.
+            Set<Hash> latter = new HashSet<>();
+            Iterator<PendingEvent> iterator = window.descendingIterator();
+            while (iterator.hasNext()) {
+                PendingEvent pending = iterator.next();
+                Hash content = pending.event.getContent();
+                if (failed.contains(pending.event) && !(coalesce() && latter.contains(content))) {
+                    pending.fail();
+                }
+                latter.add(content);
+            }
+        }
+
+        private void signalProgress() {
+            lock.lock();
+            try {
+                progressed = true;
+                condition.signalAll();
+
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void awaitProgress(boolean acceptsEvents) {
+            lock.lock();
+            try {
+                while (!stopped && !progressed && !(signaled && acceptsEvents)) {
+                    condition.awaitUninterruptibly();
+                }
+                progressed = false;
+                if (acceptsEvents) {
+                    signaled = false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Event nextEvent(boolean wait) {
+            lock.lock();
+            try {
+                if (events.isEmpty()) {
+                    fetchEvents();
+                }
+                while (wait && !stopped && events.isEmpty()) {
+                    signaled = false;
+                    while (!stopped && !signaled) {
+                        updateInfo(AgentState.WAITING);
+                        condition.awaitUninterruptibly();
+                        updateInfo(AgentState.RUNNING);
+                    }
+                    fetchEvents();
+                }
+                if (stopped || events.isEmpty()) {
+                    return null;
+                }
+                return events.removeFirst();
+
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean tryProcess(PendingEvent pending) {
+            processing.set(pending);
+            try {
+                return tryProcess(pending.event);
+
+            } finally {
+                processing.remove();
             }
         }
 
@@ -233,7 +549,7 @@ public abstract class Agent {
             }
         }
 
-        private Optional<Event> next() {
+        private List<Event> nextBatch() {
             lock.lock();
             try {
                 while (!stopped && events.isEmpty()) {
@@ -247,10 +563,25 @@ public abstract class Agent {
                         }
                     }
                 }
+                List<Event> batch = new ArrayList<>();
                 if (stopped) {
-                    return Optional.empty();
+                    return batch;
+                }
+                int batchSize = config.getInt(AGENTS_BATCH_SIZE);
+                while (batch.size() < batchSize) {
+                    if (events.isEmpty()) {
+                        fetchEvents();
+                        if (events.isEmpty()) {
+                            break;
+                        }
+                    }
+                    Event event = events.removeFirst();
+                    if (coalesce()) {
+                        batch.removeIf(previous -> previous.getContent().equals(event.getContent()));
+                    }
+                    batch.add(event);
                 }
-                return Optional.of(events.removeFirst());
+                return batch;
 
             } finally {
                 lock.unlock();
@@ -259,17 +590,19 @@ public abstract class Agent {
 
         private void fetchEvents() {
             int fetchSize = config.getInt(AGENTS_HISTORY_FETCH_SIZE);
-            List<Event> chunk = repository.history(true, curSeq + 1, fetchSize);
+            List<Event> chunk = repository.history(true, fetchedSeq + 1, fetchSize);
             events.addAll(chunk);
 
             if (chunk.size() == fetchSize) {
+                fetchedSeq = getLast(chunk).getSeq();
                 maxSeq = repository.history(false, Long.MAX_VALUE, 1).get(0).getSeq();
 
             } else if (!chunk.isEmpty()) {
-                maxSeq = getLast(chunk).getSeq();
+                fetchedSeq = getLast(chunk).getSeq();
+                maxSeq = fetchedSeq;
 
             } else {
-                maxSeq = curSeq;
+                maxSeq = fetchedSeq;
             }
             updateInfo(AgentState.RUNNING);
         }
@@ -285,16 +618,120 @@ public abstract class Agent {
         }
 
         /**
-         * Pauses execution.
+         * Hands the event being processed by calling thread over to regular workers, if calling thread is a light
+         * events worker.
+         *
+         * @return True if event has been handed over.
+         */
+        public boolean handOver() {
+            PendingEvent pending = processing.get();
+            if (pending == null || !pending.light) {
+                return false;
+            }
+            pending.light = false;
+            return true;
+        }
+
+        /**
+         * Pauses execution. Only stopping this agent ends the pause early, processing progress and signals on source
+         * do not.
          *
          * @param seconds The time to wait in seconds.
          */
         public void pause(long seconds) {
+            lock.lock();
             try {
                 updateInfo(AgentState.WAITING);
-                condition.await(seconds, TimeUnit.SECONDS);
+                long nanos = TimeUnit.SECONDS.toNanos(seconds);
+                while (!stopped && nanos > 0) {
+                    nanos = pauseCondition.awaitNanos(nanos);
+                }
                 updateInfo(AgentState.RUNNING);
 
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * An event submitted for concurrent processing.
+     */
+    private static class PendingEvent {
+
+        private final Event event;
+        private final long previousSeq;
+        private volatile boolean light;
+        private Future<Boolean> future;
+        private boolean failed;
+
+        /**
+         * Constructor.
+         *
+         * @param event Event to process.
+         * @param previousSeq Sequence value of the event fetched just before this one.
+         * @param light Whether this event is handed to light events workers.
+         */
+        public PendingEvent(Event event, long previousSeq, boolean light) {
+            this.event = event;
+            this.previousSeq = previousSeq;
+            this.light = light;
+        }
+
+        /**
+         * Marks this event as succeeded without processing it, because a latter event about the same content follows.
+         */
+        public void supersede() {
+            future = completedFuture(true);
+        }
+
+        /**
+         * Marks this event as failed, whatever the outcome of its processing, because its deferred writes failed. It
+         * may still be being processed, if these writes were performed on behalf of another event.
+         */
+        public void fail() {
+            failed = true;
+        }
+
+        /**
+         * Resets this event, so that it is processed again.
+         */
+        public void reset() {
+            future = null;
+            failed = false;
+        }
+
+        /**
+         * @return True if processing of this event is completed and succeeded.
+         */
+        public boolean isSucceeded() {
+            return !failed && future != null && future.isDone() && result();
+        }
+
+        /**
+         * @return True if processing of this event is completed but failed.
+         */
+        public boolean isFailed() {
+            return future != null && future.isDone() && (failed || !result());
+        }
+
+        private boolean result() {
+            try {
+                return future.get();
+
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new UnexpectedFailureException(cause);
+
             } catch (InterruptedException e) {
                 throw new AssertionError(e);
             }
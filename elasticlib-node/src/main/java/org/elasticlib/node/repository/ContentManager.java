@@ -20,9 +20,22 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import static java.lang.Math.min;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 import java.util.Deque;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedDeque;
@@ -37,7 +50,7 @@ import org.elasticlib.common.exception.UnknownContentException;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.hash.Hash;
 import org.elasticlib.common.model.Digest;
-import org.elasticlib.common.model.DigestOutputStream;
+import org.elasticlib.common.model.ResumableDigestOutputStream;
 import org.elasticlib.common.model.StagingInfo;
 import org.elasticlib.common.util.BoundedInputStream;
 import static org.elasticlib.common.util.IoUtil.copy;
@@ -48,12 +61,19 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Stores and retrieves contents inside a repository.
+ * <p>
+ * State of the digest of each staged content is persisted next to it when its staging session terminates. This allows
+ * to resume staging without having to digest again the whole staged content when its session is not cached anymore.
+ * Staged bytes are synced to disk before this state is persisted, so that a state restored after a crash never covers
+ * lost bytes. Writes themselves are not synced.
  */
 class ContentManager {
 
     private static final int KEY_LENGTH = 2;
     private static final String STAGE = "stage";
     private static final String CONTENT = "content";
+    private static final String DIGEST = ".digest";
+    private static final String TMP = ".tmp";
     private static final Logger LOG = LoggerFactory.getLogger(ContentManager.class);
 
     private final Path root;
@@ -138,7 +158,7 @@ class ContentManager {
     public StagingInfo stageContent(Hash hash) {
         lockManager.writeLock(hash);
         try {
-            DigestOutputStream digest = loadStagingDigest(hash);
+            ResumableDigestOutputStream digest = loadStagingDigest(hash);
             Guid sessionId = Guid.random();
             sessions.save(hash, new StagingSession(sessionId, digest));
             return new StagingInfo(sessionId, digest.getHash(), digest.getLength());
@@ -151,19 +171,19 @@ class ContentManager {
         }
     }
 
-    private DigestOutputStream loadStagingDigest(Hash hash) throws IOException {
+    private ResumableDigestOutputStream loadStagingDigest(Hash hash) throws IOException {
         Optional<StagingSession> session = sessions.get(hash);
         if (session.isPresent()) {
             return reuseDigest(session.get(), hash);
         }
-        DigestOutputStream digest = computeStagingDigest(hash, Long.MAX_VALUE);
+        ResumableDigestOutputStream digest = computeStagingDigest(hash, Long.MAX_VALUE);
         if (digest.getHash().equals(hash)) {
             throw new StagingCompletedException();
         }
         return digest;
     }
 
-    private static DigestOutputStream reuseDigest(StagingSession session, Hash hash) {
+    private static ResumableDigestOutputStream reuseDigest(StagingSession session, Hash hash) {
         if (session.getDigest().getHash().equals(hash)) {
             throw new StagingCompletedException();
         }
@@ -186,8 +206,7 @@ class ContentManager {
         lockManager.writeLock(hash);
         try {
             StagingSession session = sessions.load(hash, sessionId);
-            DigestOutputStream digest = write(hash, session, source, position);
-
+            ResumableDigestOutputStream digest = write(hash, session, source, position);
             sessions.save(hash, new StagingSession(sessionId, digest));
             return new StagingInfo(sessionId, digest.getHash(), digest.getLength());
 
@@ -200,7 +219,8 @@ class ContentManager {
     }
 
     /**
-     * Terminates a content staging session. Does nothing if such a session does not exist or has expired.
+     * Terminates a content staging session, persisting the state of its digest. Does nothing if such a session does not
+     * exist or has expired.
      *
      * @param hash Hash of the staged content (when staging is completed).
      * @param sessionId Staging session identifier.
@@ -208,30 +228,79 @@ class ContentManager {
     public void unstageContent(Hash hash, Guid sessionId) {
         lockManager.writeLock(hash);
         try {
+            Optional<StagingSession> session = sessions.get(hash);
             sessions.release(hash, sessionId);
+            if (session.isPresent() && sessionId.equals(session.get().getSessionId())) {
+                persistStagingDigest(hash, session.get().getDigest());
+            }
+        } catch (IOException e) {
+            throw new IOFailureException(e);
 
         } finally {
             lockManager.writeUnlock(hash);
         }
     }
 
-    private DigestOutputStream computeStagingDigest(Hash hash, long limit) throws IOException {
+    private ResumableDigestOutputStream computeStagingDigest(Hash hash, long limit) throws IOException {
         Path path = stagingPath(hash);
         if (!Files.exists(path)) {
-            return new DigestOutputStream();
+            return new ResumableDigestOutputStream();
         }
-        try (InputStream input = Files.newInputStream(path)) {
-            DigestOutputStream output = new DigestOutputStream();
-            copy(new BoundedInputStream(input, limit), output);
+        ResumableDigestOutputStream output = loadPersistedDigest(hash, min(limit, Files.size(path)));
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            // Only digest staged bytes written after last persisted state.
+            channel.position(output.getLength());
+            copy(new BoundedInputStream(Channels.newInputStream(channel), limit - output.getLength()), output);
             return output;
         }
     }
 
-    private DigestOutputStream write(Hash hash,
+    private ResumableDigestOutputStream loadPersistedDigest(Hash hash, long limit) throws IOException {
+        try {
+            byte[] state = Files.readAllBytes(stagingDigestPath(hash));
+            ResumableDigestOutputStream digest = ResumableDigestOutputStream.fromState(state);
+            if (digest.getLength() <= limit) {
+                return digest;
+            }
+        } catch (NoSuchFileException e) {
+            // Staged content will be digested from its beginning.
+
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Ignoring invalid staging digest state of {}", hash);
+        }
+        return new ResumableDigestOutputStream();
+    }
+
+    private void persistStagingDigest(Hash hash, ResumableDigestOutputStream digest) throws IOException {
+        Path path = stagingPath(hash);
+        if (digest.getLength() == 0 || !Files.exists(path)) {
+            return;
+        }
+        // Persisted state must never cover staged bytes which are not durably written.
+        try (FileChannel channel = FileChannel.open(path, WRITE)) {
+            channel.force(false);
+        }
+        persistDigest(hash, digest);
+    }
+
+    private void persistDigest(Hash hash, ResumableDigestOutputStream digest) throws IOException {
+        Path path = stagingDigestPath(hash);
+        Path tmp = path.resolveSibling(path.getFileName() + TMP);
+        try (FileChannel channel = FileChannel.open(tmp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(digest.getState());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(tmp, path, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private ResumableDigestOutputStream write(Hash hash,
                                      StagingSession session,
                                      InputStream source,
                                      long position) throws IOException {
-        DigestOutputStream digest = session.getDigest();
+        ResumableDigestOutputStream digest = session.getDigest();
         boolean truncate = false;
 
         if (digest.getHash().equals(hash)) {
@@ -243,19 +312,96 @@ class ContentManager {
         if (position < digest.getLength()) {
             truncate = true;
             digest = computeStagingDigest(hash, position);
+
+            // Persisted state does not match staged content anymore.
+            Files.deleteIfExists(stagingDigestPath(hash));
         }
         try (RandomAccessFile file = new RandomAccessFile(stagingPath(hash).toFile(), "rw")) {
             file.seek(position);
             copy(source, new RandomAccessFileOutputStream(file), digest);
             if (truncate) {
-                try (FileChannel channel = file.getChannel()) {
-                    channel.truncate(digest.getLength());
-                }
+                file.getChannel().truncate(digest.getLength());
             }
         }
         return digest;
     }
 
+    /**
+     * Stages a content by importing it from another content manager of this node. Content file is hard-linked if both
+     * managers are on the same file system, or copied otherwise. Imported bytes are verified before being staged. Locks
+     * of both managers are never held at the same time, so that concurrent imports in both directions can not
+     * dead-lock.
+     *
+     * @param hash Content hash.
+     * @param source Content manager to import from.
+     */
+    public void importContent(Hash hash, ContentManager source) {
+        Path tmp = root
+                .resolve(STAGE)
+                .resolve(hash.asHexadecimalString() + "." + Guid.random().asHexadecimalString() + TMP);
+        try {
+            source.export(hash, tmp);
+            ResumableDigestOutputStream digest = new ResumableDigestOutputStream();
+            try (InputStream inputStream = Files.newInputStream(tmp)) {
+                copy(inputStream, digest);
+            }
+            if (!digest.getHash().equals(hash)) {
+                throw new IntegrityCheckingFailedException();
+            }
+            lockManager.writeLock(hash);
+            try {
+                Optional<StagingSession> session = sessions.get(hash);
+                if (session.isPresent() && session.get().getSessionId() != null) {
+                    throw new PendingStagingSessionException();
+                }
+                Files.move(tmp, stagingPath(hash), REPLACE_EXISTING, ATOMIC_MOVE);
+                persistDigest(hash, digest);
+                sessions.clear(hash);
+
+            } finally {
+                lockManager.writeUnlock(hash);
+            }
+        } catch (IOException e) {
+            throw new IOFailureException(e);
+
+        } finally {
+            try {
+                Files.deleteIfExists(tmp);
+
+            } catch (IOException e) {
+                LOG.error("Failed to delete " + tmp, e);
+            }
+        }
+    }
+
+    private void export(Hash hash, Path target) throws IOException {
+        lockManager.readLock(hash);
+        try {
+            Path path = contentPath(hash);
+            if (!Files.exists(path)) {
+                throw new UnknownContentException();
+            }
+            try {
+                Files.createLink(target, path);
+                return;
+
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // Not on the same file system, falls back to a copy.
+            }
+            try (FileChannel input = FileChannel.open(path, READ);
+                    FileChannel output = FileChannel.open(target, CREATE_NEW, WRITE)) {
+                long size = input.size();
+                long position = 0;
+                while (position < size) {
+                    position += input.transferTo(position, size - position, output);
+                }
+                output.force(false);
+            }
+        } finally {
+            lockManager.readUnlock(hash);
+        }
+    }
+
     /**
      * Stores a new content. Fails if this content has not been previously staged.
      *
@@ -266,6 +412,7 @@ class ContentManager {
         try {
             ensureStaged(hash);
             Files.move(stagingPath(hash), contentPath(hash));
+            Files.deleteIfExists(stagingDigestPath(hash));
             sessions.clear(hash);
 
         } catch (IOException e) {
@@ -278,7 +425,7 @@ class ContentManager {
 
     private void ensureStaged(Hash hash) throws IOException {
         Optional<StagingSession> session = sessions.get(hash);
-        DigestOutputStream digest;
+        ResumableDigestOutputStream digest;
         if (session.isPresent()) {
             digest = session.get().getDigest();
         } else {
@@ -324,10 +471,10 @@ class ContentManager {
             Optional<StagingSession> sessionOpt = sessions.get(hash);
             if (sessionOpt.isPresent()) {
                 StagingSession session = sessionOpt.get();
-                DigestOutputStream digest = session.getDigest();
+                ResumableDigestOutputStream digest = session.getDigest();
                 return new StagingInfo(session.getSessionId(), digest.getHash(), digest.getLength());
             }
-            DigestOutputStream digest = computeStagingDigest(hash, Long.MAX_VALUE);
+            ResumableDigestOutputStream digest = computeStagingDigest(hash, Long.MAX_VALUE);
             return new StagingInfo(null, digest.getHash(), digest.getLength());
 
         } catch (IOException e) {
@@ -392,12 +539,32 @@ class ContentManager {
         }
     }
 
+    /**
+     * @return The number of content read lock acquisitions that had to wait so far.
+     */
+    public long getReadLockContentions() {
+        return lockManager.getReadContentions();
+    }
+
+    /**
+     * @return The number of content write lock acquisitions that had to wait so far.
+     */
+    public long getWriteLockContentions() {
+        return lockManager.getWriteContentions();
+    }
+
     private Path stagingPath(Hash hash) {
         return root
                 .resolve(STAGE)
                 .resolve(hash.asHexadecimalString());
     }
 
+    private Path stagingDigestPath(Hash hash) {
+        return root
+                .resolve(STAGE)
+                .resolve(hash.asHexadecimalString() + DIGEST);
+    }
+
     private Path contentPath(Hash hash) {
         return root
                 .resolve(CONTENT)
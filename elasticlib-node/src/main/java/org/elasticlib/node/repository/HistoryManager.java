@@ -20,6 +20,8 @@ import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.LockMode;
 import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.SecondaryCursor;
+import com.sleepycat.je.SecondaryDatabase;
 import com.sleepycat.je.Sequence;
 import static java.lang.Math.min;
 import static java.time.Instant.now;
@@ -42,16 +44,29 @@ import org.elasticlib.node.manager.storage.StorageManager;
 class HistoryManager {
 
     private static final String HISTORY = "history";
+    private static final String HISTORY_BY_CONTENT = "historyByContent";
     private final StorageManager storageManager;
     private final Database database;
+    private final SecondaryDatabase byContent;
     private final Sequence sequence;
 
     public HistoryManager(StorageManager storageManager) {
         this.storageManager = storageManager;
         this.database = storageManager.openDatabase(HISTORY);
+        this.byContent = storageManager.openSecondaryDatabase(HISTORY_BY_CONTENT,
+                                                              database,
+                                                              HistoryManager::contentKey);
         this.sequence = storageManager.openSequence(HISTORY);
     }
 
+    private static boolean contentKey(SecondaryDatabase secondary,
+                                      DatabaseEntry key,
+                                      DatabaseEntry data,
+                                      DatabaseEntry result) {
+        result.setData(asMappable(data, Event.class).getContent().getBytes());
+        return true;
+    }
+
     public void add(Operation operation, Hash content, SortedSet<Hash> revisions) {
         long seq = sequence.get(null, 1);
 
@@ -63,7 +78,7 @@ class HistoryManager {
                 .withOperation(operation)
                 .build();
 
-        database.put(storageManager.currentTransaction(),
+        database.put(storageManager.currentWriteTransaction(),
                      entry(seq),
                      new DatabaseEntry(new BsonWriter().put(event.toMap()).build()));
     }
@@ -87,6 +102,48 @@ class HistoryManager {
         }
     }
 
+    public List<Event> history(Hash content, boolean chronological, long first, int number) {
+        try (SecondaryCursor cursor = storageManager.openCursor(byContent)) {
+            List<Event> events = new ArrayList<>(min(number, 1000));
+            DatabaseEntry key = entry(content);
+            DatabaseEntry pKey = entry(first);
+            DatabaseEntry data = new DatabaseEntry();
+            if (!searchFirst(chronological, first, cursor, key, pKey, data)) {
+                return emptyList();
+            }
+            events.add(asMappable(data, Event.class));
+            while (events.size() < number && searchNext(chronological, cursor, key, pKey, data)) {
+                events.add(asMappable(data, Event.class));
+            }
+            return events;
+        }
+    }
+
+    private static boolean searchFirst(boolean chronological, long first, SecondaryCursor cursor,
+                                       DatabaseEntry key, DatabaseEntry pKey, DatabaseEntry data) {
+        // Duplicates are sorted by primary key, that is by sequence.
+        if (cursor.getSearchBothRange(key, pKey, data, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+            return chronological || asLong(pKey) == first || searchNext(false, cursor, key, pKey, data);
+        }
+        if (chronological || cursor.getSearchKey(key, pKey, data, LockMode.DEFAULT) != OperationStatus.SUCCESS) {
+            return false;
+        }
+        // All events of this content precede first one, moves to the latest of them.
+        while (searchNext(true, cursor, key, pKey, data)) {
+            // Nothing to do.
+        }
+        return cursor.getCurrent(key, pKey, data, LockMode.DEFAULT) == OperationStatus.SUCCESS;
+    }
+
+    private static boolean searchNext(boolean chronological, SecondaryCursor cursor,
+                                      DatabaseEntry key, DatabaseEntry pKey, DatabaseEntry data) {
+        if (chronological) {
+            return cursor.getNextDup(key, pKey, data, LockMode.DEFAULT) == OperationStatus.SUCCESS;
+        } else {
+            return cursor.getPrevDup(key, pKey, data, LockMode.DEFAULT) == OperationStatus.SUCCESS;
+        }
+    }
+
     private static boolean searchFirst(boolean chronological, long first,
                                        Cursor cursor, DatabaseEntry key, DatabaseEntry data) {
         if (chronological) {
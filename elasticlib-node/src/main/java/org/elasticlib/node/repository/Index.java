@@ -39,7 +39,6 @@ import org.apache.lucene.document.DoubleField;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.LongField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
@@ -47,6 +46,7 @@ import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
@@ -54,6 +54,9 @@ import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.SingleInstanceLockFactory;
 import org.apache.tika.Tika;
 import org.apache.tika.exception.TikaException;
+import org.elasticlib.common.config.Config;
+import static org.elasticlib.common.config.ConfigUtil.duration;
+import static org.elasticlib.common.config.ConfigUtil.unit;
 import org.elasticlib.common.exception.BadRequestException;
 import org.elasticlib.common.exception.IOFailureException;
 import org.elasticlib.common.exception.InvalidRepositoryPathException;
@@ -62,11 +65,23 @@ import org.elasticlib.common.hash.Hash;
 import org.elasticlib.common.model.IndexEntry;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.value.Value;
+import org.elasticlib.node.config.NodeConfig;
+import org.elasticlib.node.manager.task.Task;
+import org.elasticlib.node.manager.task.TaskManager;
+import org.elasticlib.node.manager.task.TaskType;
+import org.elasticlib.node.repository.TextStore.RecordingReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A Lucene index on a repository.
+ * <p>
+ * Holds a single long-lived writer on the underlying directory. Searches are performed on near-real-time readers
+ * obtained from this writer. Changes are only visible to searches once committed. This happens when commit() is called,
+ * periodically in the background, and on close.
+ * <p>
+ * Text extracted from contents is additionally kept in a text store, so that documents can be rebuilt without
+ * extracting content again.
  */
 class Index {
 
@@ -80,24 +95,55 @@ class Index {
     private final String name;
     private final Directory directory;
     private final Analyzer analyzer;
-
-    private Index(String name, Path path) throws IOException {
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Task commitTask;
+    private final TextStore texts;
+
+    private Index(String name,
+                  Path path,
+                  Config config,
+                  TaskManager taskManager,
+                  TextStore texts) throws IOException {
         this.name = name;
+        this.texts = texts;
         directory = FSDirectory.open(path.resolve(INDEX), new SingleInstanceLockFactory());
         analyzer = new StandardAnalyzer();
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, true, null);
+
+        if (config.getBoolean(NodeConfig.INDEX_COMMIT_ENABLED)) {
+            commitTask = taskManager.schedule(TaskType.SYNC,
+                                              duration(config, NodeConfig.INDEX_COMMIT_INTERVAL),
+                                              unit(config, NodeConfig.INDEX_COMMIT_INTERVAL),
+                                              "[" + name + "] Committing index",
+                                              this::commit);
+        } else {
+            commitTask = null;
+        }
     }
 
-    private IndexWriter newIndexWriter() throws IOException {
-        IndexWriterConfig config = new IndexWriterConfig(analyzer);
-        return new IndexWriter(directory, config);
-    }
-
+    /**
+     * Closes this index. Pending changes are committed before.
+     */
     public void close() {
+        if (commitTask != null) {
+            commitTask.cancel();
+        }
         try {
-            directory.close();
+            searcherManager.close();
+            writer.close();
 
         } catch (IOException e) {
             LOG.error("[" + name + "] Failed to close index", e);
+
+        } finally {
+            try {
+                directory.close();
+
+            } catch (IOException e) {
+                LOG.error("[" + name + "] Failed to close index directory", e);
+            }
         }
     }
 
@@ -106,12 +152,14 @@ class Index {
      *
      * @param name repository name.
      * @param path repository path.
+     * @param config Configuration holder.
+     * @param taskManager Asynchronous tasks manager.
      * @return Created index.
      */
-    public static Index create(String name, Path path) {
+    public static Index create(String name, Path path, Config config, TaskManager taskManager) {
         try {
             Files.createDirectory(path.resolve(INDEX));
-            return new Index(name, path);
+            return new Index(name, path, config, taskManager, TextStore.create(path));
 
         } catch (IOException e) {
             throw new IOFailureException(e);
@@ -123,14 +171,16 @@ class Index {
      *
      * @param name repository name.
      * @param path repository path.
+     * @param config Configuration holder.
+     * @param taskManager Asynchronous tasks manager.
      * @return Opened index.
      */
-    public static Index open(String name, Path path) {
+    public static Index open(String name, Path path, Config config, TaskManager taskManager) {
         if (!Files.isDirectory(path.resolve(INDEX))) {
             throw new InvalidRepositoryPathException();
         }
         try {
-            return new Index(name, path);
+            return new Index(name, path, config, taskManager, TextStore.open(path));
 
         } catch (IOException ex) {
             throw new IOFailureException(ex);
@@ -145,9 +195,7 @@ class Index {
      */
     public void index(RevisionTree revisionTree, InputStream inputStream) {
         LOG.info("[{}] Indexing {}, at revision {}", name, revisionTree.getContent(), revisionTree.getHead());
-        Optional<IndexEntry> existing = getEntry(revisionTree.getContent());
-        if (existing.isPresent() && existing.get().getRevisions().equals(revisionTree.getHead())) {
-            // already indexed !
+        if (isIndexed(revisionTree)) {
             return;
         }
         try {
@@ -163,38 +211,69 @@ class Index {
         }
     }
 
-    private boolean indexInfoAndContent(RevisionTree revisionTree, InputStream inputStream) throws IOException {
-        try (IndexWriter writer = newIndexWriter()) {
-            // First delete any existing document.
-            writer.deleteDocuments(new Term(CONTENT, revisionTree.getContent().asHexadecimalString()));
-
-            // Then (re)create the document.
-            try (Reader reader = new Tika().parse(inputStream)) {
+    /**
+     * Index supplied content, reusing text previously extracted from it. Does not do anything if there is no such text.
+     *
+     * @param revisionTree Revision tree associated with content to index.
+     * @return True if supplied content has been indexed, false if its text has to be extracted again.
+     */
+    public boolean reindex(RevisionTree revisionTree) {
+        Optional<Reader> text = texts.get(revisionTree.getContent());
+        if (!text.isPresent()) {
+            return false;
+        }
+        LOG.info("[{}] Reindexing {}, at revision {}", name, revisionTree.getContent(), revisionTree.getHead());
+        try (Reader reader = text.get()) {
+            if (!isIndexed(revisionTree)) {
+                Term term = new Term(CONTENT, revisionTree.getContent().asHexadecimalString());
                 Document document = newDocument(revisionTree);
                 document.add(new TextField(BODY, reader));
-                writer.addDocument(document);
+                writer.updateDocument(term, document);
+            }
+            return true;
+
+        } catch (AlreadyClosedException e) {
+            throw new RepositoryClosedException(e);
+
+        } catch (IOException e) {
+            throw new IOFailureException(e);
+        }
+    }
+
+    private boolean isIndexed(RevisionTree revisionTree) {
+        Optional<IndexEntry> existing = getEntry(revisionTree.getContent());
+        return existing.isPresent() && existing.get().getRevisions().equals(revisionTree.getHead());
+    }
+
+    private boolean indexInfoAndContent(RevisionTree revisionTree, InputStream inputStream) throws IOException {
+        // Existing document, if any, is atomically replaced.
+        Term term = new Term(CONTENT, revisionTree.getContent().asHexadecimalString());
+        try (Reader reader = new Tika().parse(inputStream)) {
+            RecordingReader recorder = texts.record(revisionTree.getContent(), reader);
+            try {
+                Document document = newDocument(revisionTree);
+                document.add(new TextField(BODY, recorder));
+                writer.updateDocument(term, document);
+                recorder.save();
                 return true;
 
-            } catch (IOException e) {
-                if (e.getCause() instanceof TikaException) {
-                    LOG.error("Failed to index content from " + revisionTree.getContent(), e);
-                    writer.rollback();
-                    return false;
-                }
-                throw e;
+            } finally {
+                recorder.discard();
             }
+        } catch (IOException e) {
+            if (e.getCause() instanceof TikaException) {
+                // Lucene marks partially added document as deleted, writer is still usable.
+                LOG.error("Failed to index content from " + revisionTree.getContent(), e);
+                return false;
+            }
+            throw e;
         }
     }
 
     private void indexInfo(RevisionTree revisionTree) throws IOException {
-        try (IndexWriter writer = newIndexWriter()) {
-            // First delete any existing document.
-            writer.deleteDocuments(new Term(CONTENT, revisionTree.getContent().asHexadecimalString()));
-
-            // Here we do not extract and index content.
-            Document document = newDocument(revisionTree);
-            writer.addDocument(document);
-        }
+        // Here we do not extract and index content.
+        Term term = new Term(CONTENT, revisionTree.getContent().asHexadecimalString());
+        writer.updateDocument(term, newDocument(revisionTree));
     }
 
     private static Document newDocument(RevisionTree revisionTree) {
@@ -268,19 +347,18 @@ class Index {
 
     private Optional<IndexEntry> getEntry(Hash hash) {
         try {
-            if (directory.listAll().length == 0) {
-                return Optional.empty();
-            }
-            try (DirectoryReader reader = DirectoryReader.open(directory)) {
-                IndexSearcher searcher = new IndexSearcher(reader);
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
                 TermQuery query = new TermQuery(new Term(CONTENT, hash.asHexadecimalString()));
                 ScoreDoc[] hits = searcher.search(query, 1).scoreDocs;
                 if (hits.length == 0) {
                     return Optional.empty();
                 }
                 return Optional.of(newIndexEntry(searcher.doc(hits[0].doc)));
-            }
 
+            } finally {
+                searcherManager.release(searcher);
+            }
         } catch (AlreadyClosedException e) {
             throw new RepositoryClosedException(e);
 
@@ -296,9 +374,28 @@ class Index {
      */
     public void delete(Hash hash) {
         LOG.info("[{}] Deleting {}", name, hash);
-        try (IndexWriter writer = newIndexWriter()) {
+        try {
             writer.deleteDocuments(new Term(CONTENT, hash.asHexadecimalString()));
+            texts.delete(hash);
+
+        } catch (AlreadyClosedException e) {
+            throw new RepositoryClosedException(e);
+
+        } catch (IOException e) {
+            throw new IOFailureException(e);
+        }
+    }
 
+    /**
+     * Commits all pending changes to this index and makes them visible to searches. Does nothing if there is no such
+     * change.
+     */
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+                searcherManager.maybeRefresh();
+            }
         } catch (AlreadyClosedException e) {
             throw new RepositoryClosedException(e);
 
@@ -321,25 +418,22 @@ class Index {
                 number += first;
                 first = 0;
             }
-            if (directory.listAll().length == 0 || number <= 0) {
+            if (number <= 0) {
                 return emptyList();
             }
-            try (DirectoryReader reader = DirectoryReader.open(directory)) {
-                IndexSearcher searcher = new IndexSearcher(reader);
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
                 QueryParser parser = new QueryParser(BODY, analyzer);
                 ScoreDoc[] hits = searcher.search(parser.parse(query), first + number).scoreDocs;
                 List<IndexEntry> entries = new ArrayList<>(number);
                 int last = min(first + number, hits.length);
                 for (int i = first; i < last; i++) {
-                    Document document = searcher.doc(hits[i].doc);
-                    Hash hash = new Hash(document.getValues(CONTENT)[0]);
-                    Set<Hash> head = new HashSet<>();
-                    for (String value : document.getValues(REVISION)) {
-                        head.add(new Hash(value));
-                    }
-                    entries.add(new IndexEntry(hash, head));
+                    entries.add(newIndexEntry(searcher.doc(hits[i].doc)));
                 }
                 return entries;
+
+            } finally {
+                searcherManager.release(searcher);
             }
         } catch (AlreadyClosedException e) {
             throw new RepositoryClosedException(e);
@@ -17,18 +17,50 @@ package org.elasticlib.node.repository;
 
 import java.io.IOException;
 import java.io.InputStream;
+import static java.lang.Math.floorMod;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.elasticlib.common.config.Config;
+import org.elasticlib.common.exception.IOFailureException;
+import org.elasticlib.common.exception.NodeException;
+import org.elasticlib.common.exception.RepositoryClosedException;
+import org.elasticlib.common.exception.UnexpectedFailureException;
+import org.elasticlib.common.hash.Hash;
 import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.RevisionTree;
+import static org.elasticlib.node.config.NodeConfig.INDEX_EXTRACTION_POOL_SIZE;
 import org.elasticlib.node.dao.CurSeqsDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * An agent that performs indexing from a repository to its internal index.
+ * <p>
+ * Content extraction and indexing is delegated to a pool of workers, which all feed the same index. Each content is
+ * always handled by the same worker, so that events about a given content are applied in order. Batch progress is only
+ * persisted once all workers are done. Should a worker fail to process an event, batch is retried from this event.
+ * <p>
+ * As indexing relies on current revision tree of each content, only the latest event about a given content within a
+ * batch is actually processed.
  */
 class IndexingAgent extends Agent {
 
+    private static final Logger LOG = LoggerFactory.getLogger(IndexingAgent.class);
+
     private final Repository repository;
     private final Index index;
+    private final List<ExecutorService> workers;
+    private final Map<Event, Future<Boolean>> pending = new LinkedHashMap<>();
 
     /**
      * Constructor.
@@ -43,23 +75,104 @@ class IndexingAgent extends Agent {
 
         this.repository = repository;
         this.index = index;
+
+        int poolSize = config.getInt(INDEX_EXTRACTION_POOL_SIZE);
+        workers = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            String name = "indexation-" + repository.getDef().getGuid() + "-" + (i + 1);
+            workers.add(newSingleThreadExecutor(runnable -> new Thread(runnable, name)));
+        }
+    }
+
+    @Override
+    protected boolean coalesce() {
+        return true;
     }
 
     @Override
     protected boolean process(Event event) {
         RevisionTree tree = repository.getTree(event.getContent());
+        pending.put(event, worker(tree.getContent()).submit(() -> tryIndexOrDelete(event, tree)));
+        return true;
+    }
+
+    private ExecutorService worker(Hash hash) {
+        return workers.get(floorMod(hash.hashCode(), workers.size()));
+    }
+
+    private boolean tryIndexOrDelete(Event event, RevisionTree tree) {
+        try {
+            indexOrDelete(tree);
+            return true;
+
+        } catch (IOFailureException | UnexpectedFailureException | RepositoryClosedException e) {
+            throw e;
+
+        } catch (NodeException e) {
+            // For instance, content may have been deleted in the meantime.
+            LOG.warn("Failed to index event " + event.getSeq(), e);
+            return false;
+        }
+    }
+
+    private void indexOrDelete(RevisionTree tree) {
         if (tree.isDeleted()) {
             index.delete(tree.getContent());
-            return true;
 
-        } else {
+        } else if (!index.reindex(tree)) {
             try (InputStream inputStream = repository.getContent(tree.getContent(), 0, Long.MAX_VALUE)) {
                 index.index(tree, inputStream);
-                return true;
 
             } catch (IOException e) {
                 throw new AssertionError(e);
             }
         }
     }
+
+    @Override
+    protected Set<Event> flush() {
+        Set<Event> failed = new HashSet<>();
+        RuntimeException failure = null;
+        for (Entry<Event, Future<Boolean>> entry : pending.entrySet()) {
+            try {
+                if (!entry.getValue().get()) {
+                    failed.add(entry.getKey());
+                }
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = asRuntimeException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+        pending.clear();
+        if (failure != null) {
+            throw failure;
+        }
+        index.commit();
+        return failed;
+    }
+
+    private static RuntimeException asRuntimeException(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new UnexpectedFailureException(cause);
+    }
+
+    @Override
+    protected void release() {
+        workers.forEach(ExecutorService::shutdown);
+        try {
+            for (ExecutorService worker : workers) {
+                worker.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
 }
@@ -16,18 +16,22 @@
 package org.elasticlib.node.repository;
 
 import static com.google.common.base.Joiner.on;
+import com.google.common.cache.CacheStats;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import static java.util.Collections.emptyList;
 import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import static java.util.stream.Collectors.toList;
 import org.elasticlib.common.config.Config;
 import org.elasticlib.common.exception.ContentAlreadyPresentException;
 import org.elasticlib.common.exception.IOFailureException;
@@ -43,8 +47,10 @@ import org.elasticlib.common.model.Digest;
 import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.IndexEntry;
 import org.elasticlib.common.model.Operation;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.RepositoryDef;
 import org.elasticlib.common.model.RepositoryInfo;
+import org.elasticlib.common.model.RepositoryMetrics;
 import org.elasticlib.common.model.Revision;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.StagingInfo;
@@ -75,6 +81,7 @@ public class LocalRepository implements Repository {
     private final Index index;
     private final IndexingAgent indexingAgent;
     private final StatsAgent statsAgent;
+    private final List<HistoryWaiter> historyWaiters = new ArrayList<>();
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
     private LocalRepository(RepositoryDef def,
@@ -89,7 +96,7 @@ public class LocalRepository implements Repository {
                                             config,
                                             taskManager);
         this.messageManager = messageManager;
-        revisionManager = new RevisionManager(storageManager);
+        revisionManager = new RevisionManager(config, storageManager);
         historyManager = new HistoryManager(storageManager);
         statsManager = new StatsManager(storageManager);
         this.contentManager = contentManager;
@@ -134,7 +141,7 @@ public class LocalRepository implements Repository {
                                    taskManager,
                                    messageManager,
                                    ContentManager.create(name, path, config, taskManager),
-                                   Index.create(name, path));
+                                   Index.create(name, path, config, taskManager));
     }
 
     private static boolean isEmptyDir(Path dir) throws IOException {
@@ -167,7 +174,7 @@ public class LocalRepository implements Repository {
                                    taskManager,
                                    messageManager,
                                    ContentManager.open(name, path, config, taskManager),
-                                   Index.open(name, path));
+                                   Index.open(name, path, config, taskManager));
     }
 
     @Override
@@ -176,6 +183,7 @@ public class LocalRepository implements Repository {
             return;
         }
         log("Closing");
+        waiters().forEach(waiter -> waiter.future.completeExceptionally(new RepositoryClosedException()));
         indexingAgent.stop();
         statsAgent.stop();
         index.close();
@@ -211,6 +219,25 @@ public class LocalRepository implements Repository {
         });
     }
 
+    /**
+     * Stages a content by importing it from another local repository, rather than streaming it. Staged content is then
+     * expected to be added by merging its revision tree, as usual.
+     *
+     * @param hash Hash of the content to import.
+     * @param source Repository to import from.
+     */
+    public void importContent(Hash hash, LocalRepository source) {
+        ensureOpen();
+        log("Importing content {} from {}", hash, source.getDef().getName());
+        storageManager.inTransaction(() -> {
+            Optional<RevisionTree> treeOpt = revisionManager.get(hash);
+            if (treeOpt.isPresent() && !treeOpt.get().isDeleted()) {
+                throw new ContentAlreadyPresentException();
+            }
+        });
+        contentManager.importContent(hash, source.contentManager);
+    }
+
     @Override
     public StagingInfo writeContent(Hash hash, Guid sessionId, InputStream source, long position) {
         ensureOpen();
@@ -251,6 +278,28 @@ public class LocalRepository implements Repository {
         return result;
     }
 
+    @Override
+    public List<CommandResult> mergeTrees(List<RevisionTree> trees) {
+        ensureOpen();
+        log("Merging {} revision trees", trees.size());
+        List<CommandResult> results = storageManager.inTransaction(() -> {
+            List<CommandResult> res = new ArrayList<>(trees.size());
+            for (RevisionTree tree : trees) {
+                CommandResult result = revisionManager.put(tree);
+                handleCommandResult(result, tree.getContent());
+                res.add(result);
+            }
+            return res;
+        });
+        // Notifying a single change is enough.
+        results.stream()
+                .filter(result -> !result.isNoOp())
+                .findFirst()
+                .ifPresent(this::propagate);
+
+        return results;
+    }
+
     @Override
     public CommandResult deleteContent(Hash hash, SortedSet<Hash> head) {
         ensureOpen();
@@ -284,6 +333,7 @@ public class LocalRepository implements Repository {
         }
         indexingAgent.signal();
         statsAgent.signal();
+        completeWaiters();
         messageManager.post(new NewRepositoryEvent(def.getGuid()));
     }
 
@@ -333,6 +383,13 @@ public class LocalRepository implements Repository {
         return loadRevisionTree(hash);
     }
 
+    @Override
+    public List<RevisionTree> getTrees(Hash first, int number) {
+        ensureOpen();
+        log("Returning revision trees, first {}, number {}", first, number);
+        return storageManager.inTransaction(() -> revisionManager.list(first, number));
+    }
+
     @Override
     public List<Revision> getHead(Hash hash) {
         ensureOpen();
@@ -386,6 +443,97 @@ public class LocalRepository implements Repository {
         return storageManager.inTransaction(() -> historyManager.history(chronological, first, number));
     }
 
+    @Override
+    public List<Event> history(Hash hash, boolean chronological, long first, int number) {
+        ensureOpen();
+        log("Returning history of {}, {}, first {}, number {}",
+            hash, chronological ? "asc" : "desc", first, number);
+        return storageManager.inTransaction(() -> historyManager.history(hash, chronological, first, number));
+    }
+
+    @Override
+    public CompletableFuture<List<Event>> awaitHistory(long first, int number) {
+        ensureOpen();
+        log("Awaiting history, first {}, number {}", first, number);
+        HistoryWaiter waiter = new HistoryWaiter(first, number);
+        synchronized (historyWaiters) {
+            historyWaiters.add(waiter);
+        }
+        waiter.future.whenComplete((events, e) -> {
+            synchronized (historyWaiters) {
+                historyWaiters.remove(waiter);
+            }
+        });
+        // Expected events may have happened before registration.
+        try {
+            tryComplete(waiter, latestEvents(number));
+
+        } catch (RuntimeException e) {
+            waiter.future.completeExceptionally(e);
+        }
+        return waiter.future;
+    }
+
+    private List<HistoryWaiter> waiters() {
+        synchronized (historyWaiters) {
+            return new ArrayList<>(historyWaiters);
+        }
+    }
+
+    private void completeWaiters() {
+        List<HistoryWaiter> waiters = waiters();
+        if (waiters.isEmpty()) {
+            return;
+        }
+        // Latest events are fetched once, and shared by all waiters.
+        int number = waiters.stream()
+                .mapToInt(waiter -> waiter.number)
+                .max()
+                .getAsInt();
+        try {
+            List<Event> latest = latestEvents(number);
+            waiters.forEach(waiter -> tryComplete(waiter, latest));
+
+        } catch (RuntimeException e) {
+            waiters.forEach(waiter -> waiter.future.completeExceptionally(e));
+        }
+    }
+
+    private static void tryComplete(HistoryWaiter waiter, List<Event> latest) {
+        List<Event> events = latest
+                .stream()
+                .limit(waiter.number)
+                .filter(event -> event.getSeq() >= waiter.first)
+                .collect(toList());
+
+        if (!events.isEmpty()) {
+            waiter.future.complete(events);
+        }
+    }
+
+    private List<Event> latestEvents(int number) {
+        return storageManager.inTransaction(() -> historyManager.history(false, Long.MAX_VALUE, number));
+    }
+
+    @Override
+    public List<Partition> getPartitions(String key) {
+        ensureOpen();
+        log("Returning partitions of {}", key);
+        return storageManager.inTransaction(() -> revisionManager.partitions(key));
+    }
+
+    @Override
+    public RepositoryMetrics getMetrics() {
+        ensureOpen();
+        log("Returning metrics");
+        CacheStats treeCacheStats = revisionManager.cacheStats();
+        return new RepositoryMetrics(contentManager.getReadLockContentions(),
+                                     contentManager.getWriteLockContentions(),
+                                     treeCacheStats.hitCount(),
+                                     treeCacheStats.missCount(),
+                                     treeCacheStats.evictionCount());
+    }
+
     @Override
     public List<IndexEntry> find(String query, int first, int number) {
         ensureOpen();
@@ -405,4 +553,19 @@ public class LocalRepository implements Repository {
         }
         LOG.info(on("").join("[", def.getName(), "] ", format), args);
     }
+
+    /**
+     * A pending request for history events.
+     */
+    private static class HistoryWaiter {
+
+        private final long first;
+        private final int number;
+        private final CompletableFuture<List<Event>> future = new CompletableFuture<>();
+
+        public HistoryWaiter(long first, int number) {
+            this.first = first;
+            this.number = number;
+        }
+    }
 }
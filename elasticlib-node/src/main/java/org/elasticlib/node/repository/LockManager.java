@@ -15,10 +15,10 @@
  */
 package org.elasticlib.node.repository;
 
+import static java.lang.Math.floorMod;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -27,109 +27,220 @@ import org.elasticlib.common.hash.Hash;
 
 /**
  * Provides shared and exclusive locks on hashes.
+ * <p>
+ * Lock states are spread over a fixed number of stripes, each guarded by its own mutex, so that operations on unrelated
+ * hashes seldom contend. Each hash has its own condition, so that releasing a lock only wakes up threads waiting for
+ * the same hash.
  */
 class LockManager {
 
-    private final Lock lock = new ReentrantLock();
-    private final Condition readable = lock.newCondition();
-    private final Condition writable = lock.newCondition();
-    private final Set<Hash> write = new HashSet<>();
-    private final Map<Hash, Counter> read = new HashMap<>();
-    private boolean closed;
+    private static final int STRIPES = 64;
 
-    public void close() {
-        lock.lock();
-        try {
-            closed = true;
-            write.clear();
-            read.clear();
-            writable.signalAll();
-            readable.signalAll();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicLong readContentions = new AtomicLong();
+    private final AtomicLong writeContentions = new AtomicLong();
+    private volatile boolean closed;
 
-        } finally {
-            lock.unlock();
+    /**
+     * Constructor.
+     */
+    public LockManager() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
         }
     }
 
+    /**
+     * Closes this manager. All locks are released and pending waiters fail.
+     */
+    public void close() {
+        closed = true;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.entries.values().forEach(entry -> entry.condition.signalAll());
+                stripe.entries.clear();
+
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Acquires exclusive lock on supplied hash, waiting if needed.
+     *
+     * @param hash A hash.
+     */
     public void writeLock(Hash hash) {
-        lock.lock();
+        Stripe stripe = stripe(hash);
+        stripe.lock.lock();
         try {
-            while (write.contains(hash) || read.containsKey(hash)) {
-                writable.awaitUninterruptibly();
-            }
-            if (closed) {
-                throw new RepositoryClosedException();
-            }
-            write.add(hash);
+            Entry entry = stripe.acquire(hash);
+            boolean granted = false;
+            try {
+                if (entry.writer || entry.readers > 0) {
+                    writeContentions.incrementAndGet();
+                    while (!closed && (entry.writer || entry.readers > 0)) {
+                        entry.condition.awaitUninterruptibly();
+                    }
+                }
+                if (closed) {
+                    throw new RepositoryClosedException();
+                }
+                entry.writer = true;
+                granted = true;
 
+            } finally {
+                if (!granted) {
+                    stripe.release(hash, entry);
+                }
+            }
         } finally {
-            lock.unlock();
+            stripe.lock.unlock();
         }
     }
 
+    /**
+     * Releases exclusive lock on supplied hash.
+     *
+     * @param hash A hash.
+     */
     public void writeUnlock(Hash hash) {
-        lock.lock();
+        Stripe stripe = stripe(hash);
+        stripe.lock.lock();
         try {
-            write.remove(hash);
-            writable.signal();
-            readable.signalAll();
-
+            Entry entry = stripe.entries.get(hash);
+            if (entry != null && entry.writer) {
+                entry.writer = false;
+                entry.condition.signalAll();
+                stripe.release(hash, entry);
+            }
         } finally {
-            lock.unlock();
+            stripe.lock.unlock();
         }
     }
 
+    /**
+     * Acquires shared lock on supplied hash, waiting if needed.
+     *
+     * @param hash A hash.
+     */
     public void readLock(Hash hash) {
-        lock.lock();
+        Stripe stripe = stripe(hash);
+        stripe.lock.lock();
         try {
-            while (write.contains(hash)) {
-                readable.awaitUninterruptibly();
-            }
-            if (closed) {
-                throw new RepositoryClosedException();
-            }
-            if (!read.containsKey(hash)) {
-                read.put(hash, new Counter());
-            }
-            read.get(hash).increment();
+            Entry entry = stripe.acquire(hash);
+            boolean granted = false;
+            try {
+                if (entry.writer) {
+                    readContentions.incrementAndGet();
+                    while (!closed && entry.writer) {
+                        entry.condition.awaitUninterruptibly();
+                    }
+                }
+                if (closed) {
+                    throw new RepositoryClosedException();
+                }
+                entry.readers++;
+                granted = true;
 
+            } finally {
+                if (!granted) {
+                    stripe.release(hash, entry);
+                }
+            }
         } finally {
-            lock.unlock();
+            stripe.lock.unlock();
         }
     }
 
+    /**
+     * Releases a shared lock on supplied hash.
+     *
+     * @param hash A hash.
+     */
     public void readUnlock(Hash hash) {
-        lock.lock();
+        Stripe stripe = stripe(hash);
+        stripe.lock.lock();
         try {
-            Counter counter = read.get(hash);
-            if (counter != null) {
-                counter.decrement();
-                if (counter.value() == 0) {
-                    read.remove(hash);
+            Entry entry = stripe.entries.get(hash);
+            if (entry != null && entry.readers > 0) {
+                entry.readers--;
+                if (entry.readers == 0) {
+                    entry.condition.signalAll();
                 }
+                stripe.release(hash, entry);
             }
-            writable.signal();
-            readable.signalAll();
-
         } finally {
-            lock.unlock();
+            stripe.lock.unlock();
         }
     }
 
-    private static class Counter {
+    /**
+     * @return The number of shared lock acquisitions that had to wait so far.
+     */
+    public long getReadContentions() {
+        return readContentions.get();
+    }
+
+    /**
+     * @return The number of exclusive lock acquisitions that had to wait so far.
+     */
+    public long getWriteContentions() {
+        return writeContentions.get();
+    }
 
-        private int value;
+    private Stripe stripe(Hash hash) {
+        return stripes[floorMod(hash.hashCode(), STRIPES)];
+    }
 
-        public void increment() {
-            value++;
+    /**
+     * Holds lock states of a subset of the hashes.
+     */
+    private static class Stripe {
+
+        private final Lock lock = new ReentrantLock();
+        private final Map<Hash, Entry> entries = new HashMap<>();
+
+        /**
+         * Registers a new user (either holder or waiter) of the state associated with supplied hash, creating this
+         * state if needed. Caller is expected to hold stripe lock.
+         */
+        public Entry acquire(Hash hash) {
+            Entry entry = entries.get(hash);
+            if (entry == null) {
+                entry = new Entry(lock.newCondition());
+                entries.put(hash, entry);
+            }
+            entry.users++;
+            return entry;
         }
 
-        public void decrement() {
-            value--;
+        /**
+         * Unregisters a user of the state associated with supplied hash, removing this state if it is not used anymore.
+         * Caller is expected to hold stripe lock.
+         */
+        public void release(Hash hash, Entry entry) {
+            entry.users--;
+            if (entry.users == 0 && entries.get(hash) == entry) {
+                entries.remove(hash);
+            }
         }
+    }
+
+    /**
+     * Lock state of a given hash.
+     */
+    private static class Entry {
+
+        private final Condition condition;
+        private boolean writer;
+        private int readers;
+        private int users;
 
-        public int value() {
-            return value;
+        public Entry(Condition condition) {
+            this.condition = condition;
         }
     }
 }
@@ -22,13 +22,18 @@ import static java.lang.String.join;
 import java.net.SocketException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import javax.ws.rs.ProcessingException;
 import org.elasticlib.common.client.RepositoryTarget;
 import org.elasticlib.common.exception.IOFailureException;
 import org.elasticlib.common.exception.RepositoryClosedException;
+import org.elasticlib.common.exception.UnexpectedFailureException;
+import org.elasticlib.common.exception.UnknownRepositoryException;
 import org.elasticlib.common.exception.UnreachableNodeException;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.hash.Hash;
@@ -37,8 +42,10 @@ import org.elasticlib.common.model.ContentInfo;
 import org.elasticlib.common.model.Digest;
 import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.IndexEntry;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.RepositoryDef;
 import org.elasticlib.common.model.RepositoryInfo;
+import org.elasticlib.common.model.RepositoryMetrics;
 import org.elasticlib.common.model.Revision;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.StagingInfo;
@@ -52,7 +59,12 @@ public class RemoteRepository implements Repository {
 
     private static final Logger LOG = LoggerFactory.getLogger(RemoteRepository.class);
 
+    private static final long IMPORT_TIMEOUT = 20_000;
+    private static final String NOT_FOUND = "Not found";
+
     private final RepositoryTarget repository;
+    private final RepositoryTarget feed;
+    private final long pollTimeout;
     private final String name;
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
@@ -60,10 +72,15 @@ public class RemoteRepository implements Repository {
      * Constructor.
      *
      * @param repository HTTP client on the remote repository.
+     * @param feed HTTP client on the remote repository, dedicated to history feed polling.
+     * @param pollTimeout Time remote node is asked to hold a feed poll for, in milliseconds. Expected to be lower than
+     * feed client read timeout.
      * @param name Remote repository name (for logging).
      */
-    public RemoteRepository(RepositoryTarget repository, String name) {
+    public RemoteRepository(RepositoryTarget repository, RepositoryTarget feed, long pollTimeout, String name) {
         this.repository = repository;
+        this.feed = feed;
+        this.pollTimeout = pollTimeout;
         this.name = name;
     }
 
@@ -91,6 +108,43 @@ public class RemoteRepository implements Repository {
         });
     }
 
+    /**
+     * Makes remote node import a content into this repository, directly from another repository, which is expected to
+     * be reachable from remote node. Waits for a bounded time for this import to complete.
+     *
+     * @param hash Content hash.
+     * @param source Source repository GUID.
+     * @return Info about this content in this repository. Its state is still staging if import is still in progress,
+     * and absent if remote node declined it. Empty if remote node does not support imports, or can not reach source
+     * repository. Other failures are thrown, import may then be retried.
+     */
+    public Optional<ContentInfo> importContent(Hash hash, Guid source) {
+        return fetch(() -> {
+            log("Importing content {} from {}", hash, source);
+            try {
+                return Optional.of(repository.importContent(hash, source, IMPORT_TIMEOUT));
+
+            } catch (UnknownRepositoryException | UnreachableNodeException e) {
+                // These failures are returned by remote node. Transport ones are not node exceptions.
+                LOG.warn("Remote node can not reach source repository", e);
+                return Optional.empty();
+
+            } catch (UnexpectedFailureException e) {
+                if (!isUnsupported(e)) {
+                    throw e;
+                }
+                LOG.warn("Remote node does not support imports", e);
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static boolean isUnsupported(UnexpectedFailureException e) {
+        // A node which does not expose the import endpoint reports the not found error of its HTTP stack as an
+        // unexpected failure.
+        return e.getMessage() != null && e.getMessage().startsWith(NOT_FOUND);
+    }
+
     @Override
     public StagingInfo writeContent(Hash hash, Guid sessionId, InputStream source, long position) {
         return fetch(() -> {
@@ -124,6 +178,14 @@ public class RemoteRepository implements Repository {
         });
     }
 
+    @Override
+    public List<CommandResult> mergeTrees(List<RevisionTree> trees) {
+        return fetch(() -> {
+            log("Merging {} revision trees", trees.size());
+            return repository.mergeTrees(trees);
+        });
+    }
+
     @Override
     public CommandResult deleteContent(Hash hash, SortedSet<Hash> head) {
         return fetch(() -> {
@@ -148,6 +210,14 @@ public class RemoteRepository implements Repository {
         });
     }
 
+    @Override
+    public List<RevisionTree> getTrees(Hash first, int number) {
+        return fetch(() -> {
+            log("Returning revision trees, first {}, number {}", first, number);
+            return repository.getTrees(first, number);
+        });
+    }
+
     @Override
     public List<Revision> getHead(Hash hash) {
         return fetch(() -> {
@@ -197,6 +267,71 @@ public class RemoteRepository implements Repository {
         });
     }
 
+    @Override
+    public List<Event> history(Hash hash, boolean chronological, long first, int number) {
+        return fetch(() -> {
+            log("Returning history of {}, {}, first {}, number {}",
+                hash, chronological ? "asc" : "desc", first, number);
+            return repository.history(hash, chronological, first, number);
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Event>> awaitHistory(long first, int number) {
+        return fetch(() -> {
+            log("Awaiting history, first {}, number {}", first, number);
+            CompletableFuture<List<Event>> future = new CompletableFuture<>();
+            poll(first, number, future);
+            return future;
+        });
+    }
+
+    private void poll(long first, int number, CompletableFuture<List<Event>> future) {
+        if (future.isDone()) {
+            return;
+        }
+        if (closed.get()) {
+            future.completeExceptionally(new RepositoryClosedException());
+            return;
+        }
+        feed.awaitHistory(first, number, pollTimeout).whenComplete((events, e) -> {
+            if (e != null) {
+                future.completeExceptionally(translate(e));
+
+            } else if (events.isEmpty()) {
+                // Timeout expired on remote side, polls again.
+                poll(first, number, future);
+
+            } else {
+                future.complete(events);
+            }
+        });
+    }
+
+    private static Throwable translate(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (cause instanceof ProcessingException && cause.getCause() instanceof SocketException) {
+            return new UnreachableNodeException(cause);
+        }
+        return cause;
+    }
+
+    @Override
+    public List<Partition> getPartitions(String key) {
+        return fetch(() -> {
+            log("Returning partitions of {}", key);
+            return repository.getPartitions(key);
+        });
+    }
+
+    @Override
+    public RepositoryMetrics getMetrics() {
+        return fetch(() -> {
+            log("Returning metrics");
+            return repository.getMetrics();
+        });
+    }
+
     @Override
     public List<IndexEntry> find(String query, int first, int number) {
         return fetch(() -> {
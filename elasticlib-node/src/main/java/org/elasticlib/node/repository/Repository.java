@@ -19,6 +19,7 @@ import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.hash.Hash;
 import org.elasticlib.common.model.CommandResult;
@@ -26,8 +27,10 @@ import org.elasticlib.common.model.ContentInfo;
 import org.elasticlib.common.model.Digest;
 import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.IndexEntry;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.RepositoryDef;
 import org.elasticlib.common.model.RepositoryInfo;
+import org.elasticlib.common.model.RepositoryMetrics;
 import org.elasticlib.common.model.Revision;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.StagingInfo;
@@ -95,6 +98,15 @@ public interface Repository {
      */
     CommandResult mergeTree(RevisionTree tree);
 
+    /**
+     * Merges several revision trees at once, in a single transaction. Either all of them are merged, or none of them
+     * is.
+     *
+     * @param trees Revision trees.
+     * @return Actual operation results, in the same order as supplied trees.
+     */
+    List<CommandResult> mergeTrees(List<RevisionTree> trees);
+
     /**
      * Deletes a content.
      *
@@ -120,6 +132,16 @@ public interface Repository {
      */
     RevisionTree getTree(Hash hash);
 
+    /**
+     * Provides a paginated view of the revision trees of this repository, sorted by content hash. Trees are read
+     * without isolation, so each of them is at least as recent as when this operation started.
+     *
+     * @param first Hash of the content to start with. Content does not need to exist.
+     * @param number Number of trees to return.
+     * @return A list of revision trees.
+     */
+    List<RevisionTree> getTrees(Hash first, int number);
+
     /**
      * Provides head revisions associated with supplied hash.
      *
@@ -175,6 +197,45 @@ public interface Repository {
      */
     List<Event> history(boolean chronological, long first, int number);
 
+    /**
+     * Provides a paginated view of the history of a given content in this repository.
+     *
+     * @param hash Hash of the content.
+     * @param chronological If true, returned list of events will sorted chronologically.
+     * @param first Event sequence identifier to start with.
+     * @param number Number of events to return.
+     * @return A list of events.
+     */
+    List<Event> history(Hash hash, boolean chronological, long first, int number);
+
+    /**
+     * Provides latest events of the history of this repository, in reverse chronological order, down to supplied
+     * sequence identifier. If there is no such event yet, returned future completes as soon as some happen.
+     *
+     * @param first Sequence identifier of the oldest event to return.
+     * @param number Maximum number of events to return.
+     * @return A future non-empty list of events.
+     */
+    CompletableFuture<List<Event>> awaitHistory(long first, int number);
+
+    /**
+     * Provides the partitions directly nested in a given one, that is the partitions whose keys extend supplied key by
+     * one hexadecimal character. Empty partitions are omitted. Comparing the partitions of two repositories, and
+     * recursively the nested partitions of those which differ, allows to find contents these repositories are already
+     * in sync for.
+     *
+     * @param key Key of the parent partition. Empty key denotes the whole repository.
+     * @return A list of partitions, sorted by key.
+     */
+    List<Partition> getPartitions(String key);
+
+    /**
+     * Provides runtime metrics of this repository.
+     *
+     * @return A RepositoryMetrics instance.
+     */
+    RepositoryMetrics getMetrics();
+
     /**
      * Finds index entries matching supplied query.
      *
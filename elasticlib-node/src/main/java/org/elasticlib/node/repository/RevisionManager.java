@@ -15,44 +15,84 @@
  */
 package org.elasticlib.node.repository;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.sleepycat.je.Cursor;
 import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.LockMode;
 import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.Transaction;
+import static java.lang.Math.min;
+import java.util.ArrayList;
+import static java.util.Collections.unmodifiableList;
+import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.elasticlib.common.config.Config;
 import org.elasticlib.common.exception.ConflictException;
 import org.elasticlib.common.exception.UnknownContentException;
 import org.elasticlib.common.exception.UnknownRevisionException;
 import org.elasticlib.common.hash.Hash;
 import org.elasticlib.common.model.CommandResult;
+import org.elasticlib.common.model.DigestOutputStream;
 import org.elasticlib.common.model.Operation;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.Revision;
 import org.elasticlib.common.model.Revision.RevisionBuilder;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.RevisionTree.RevisionTreeBuilder;
+import org.elasticlib.node.config.NodeConfig;
 import static org.elasticlib.node.manager.storage.DatabaseEntries.asMappable;
 import static org.elasticlib.node.manager.storage.DatabaseEntries.entry;
 import org.elasticlib.node.manager.storage.StorageManager;
 
 /**
  * Stores and retrieves revisions inside a repository.
+ * <p>
+ * Committed revision trees are kept in a bounded memory cache, weighted by their number of revisions. A tree is evicted
+ * from this cache each time it is saved. Trees read by a transaction which has saved them and is still pending are not
+ * cached, so that this cache never exposes uncommitted changes.
+ * <p>
+ * Computing partitions requires to read all the trees of the parent partition, so computed partitions are cached as
+ * well. Saving a tree evicts the partitions it belongs to.
  */
 class RevisionManager {
 
     private static final String REVISION = "revision";
+    private static final int PARTITIONS_CACHE_MAX_SIZE = 1024;
 
     private final StorageManager storageManager;
     private final Database database;
+    private final Cache<Hash, RevisionTree> cache;
+    private final Cache<Hash, Transaction> writers;
+    private final Cache<String, List<Partition>> partitions;
+    private final AtomicLong saves = new AtomicLong();
 
     /**
      * Constructor.
      *
+     * @param config Configuration holder.
      * @param storageManager Underlying storage manager.
      */
-    public RevisionManager(StorageManager storageManager) {
+    public RevisionManager(Config config, StorageManager storageManager) {
         this.storageManager = storageManager;
         this.database = storageManager.openDatabase(REVISION);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getLong(NodeConfig.REVISIONS_CACHE_MAX_SIZE))
+                .weigher((Hash hash, RevisionTree tree) -> tree.list().size())
+                .recordStats()
+                .build();
+
+        this.writers = CacheBuilder.newBuilder()
+                .weakValues()
+                .build();
+
+        this.partitions = CacheBuilder.newBuilder()
+                .maximumSize(PARTITIONS_CACHE_MAX_SIZE)
+                .build();
     }
 
     /**
@@ -142,7 +182,132 @@ class RevisionManager {
      * @return Associated revision tree, if any.
      */
     public Optional<RevisionTree> get(Hash hash) {
-        return load(hash, LockMode.DEFAULT);
+        RevisionTree cached = cache.getIfPresent(hash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<RevisionTree> tree = load(hash, LockMode.DEFAULT);
+        if (tree.isPresent() && !isPendingWrite(hash)) {
+            cache.put(hash, tree.get());
+        }
+        return tree;
+    }
+
+    /**
+     * Provides a paginated view of stored revision trees, sorted by content hash.
+     *
+     * @param first Hash of the content to start with.
+     * @param number Number of trees to return.
+     * @return A list of revision trees.
+     */
+    public List<RevisionTree> list(Hash first, int number) {
+        try (Cursor cursor = storageManager.openCursor(database)) {
+            List<RevisionTree> trees = new ArrayList<>(min(number, 1000));
+            DatabaseEntry entry = entry(first);
+            DatabaseEntry data = new DatabaseEntry();
+            OperationStatus status = cursor.getSearchKeyRange(entry, data, LockMode.DEFAULT);
+            while (status == OperationStatus.SUCCESS && trees.size() < number) {
+                trees.add(asMappable(data, RevisionTree.class));
+                status = cursor.getNext(entry, data, LockMode.DEFAULT);
+            }
+            return trees;
+        }
+    }
+
+    /**
+     * Provides the partitions directly nested in the one associated with supplied key. Unless cached, requires to read
+     * the revision trees of all the contents of this latter partition.
+     *
+     * @param key A partition key.
+     * @return Non-empty nested partitions, sorted by key.
+     */
+    public List<Partition> partitions(String key) {
+        List<Partition> cached = partitions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long savesBefore = saves.get();
+        List<Partition> computed = unmodifiableList(computePartitions(key));
+
+        // Partitions are not cached if a tree they cover may have been saved meanwhile, or is still pending.
+        if (saves.get() == savesBefore && !isPendingWrite(key)) {
+            partitions.put(key, computed);
+        }
+        return computed;
+    }
+
+    private List<Partition> computePartitions(String key) {
+        try (Cursor cursor = storageManager.openCursor(database)) {
+            List<Partition> partitions = new ArrayList<>();
+            DatabaseEntry entry = entry(Hash.lowest(key));
+            DatabaseEntry data = new DatabaseEntry();
+            OperationStatus status = cursor.getSearchKeyRange(entry, data, LockMode.DEFAULT);
+            String current = null;
+            long count = 0;
+            DigestOutputStream output = new DigestOutputStream();
+            while (status == OperationStatus.SUCCESS) {
+                Hash content = new Hash(entry.getData());
+                if (!content.key(key.length()).equals(key)) {
+                    break;
+                }
+                String child = content.key(key.length() + 1);
+                if (!child.equals(current)) {
+                    if (current != null) {
+                        partitions.add(new Partition(current, count, output.getHash()));
+                    }
+                    current = child;
+                    count = 0;
+                    output = new DigestOutputStream();
+                }
+                write(output, asMappable(data, RevisionTree.class));
+                count++;
+                status = cursor.getNext(entry, data, LockMode.DEFAULT);
+            }
+            if (current != null) {
+                partitions.add(new Partition(current, count, output.getHash()));
+            }
+            return partitions;
+        }
+    }
+
+    private static void write(DigestOutputStream output, RevisionTree tree) {
+        write(output, tree.getContent());
+        output.write(tree.getHead().size());
+        tree.getHead().forEach(rev -> write(output, rev));
+    }
+
+    private static void write(DigestOutputStream output, Hash hash) {
+        byte[] bytes = hash.getBytes();
+        output.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Provides statistics about the revision trees cache.
+     *
+     * @return A snapshot of these statistics.
+     */
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    private boolean isPendingWrite(String key) {
+        return writers.asMap()
+                .keySet()
+                .stream()
+                .filter(hash -> hash.key(key.length()).equals(key))
+                .anyMatch(this::isPendingWrite);
+    }
+
+    private boolean isPendingWrite(Hash hash) {
+        Transaction writer = writers.getIfPresent(hash);
+        if (writer == null) {
+            return false;
+        }
+        if (writer.getState() == Transaction.State.OPEN) {
+            return true;
+        }
+        writers.asMap().remove(hash, writer);
+        return false;
     }
 
     private Optional<RevisionTree> load(Hash hash, LockMode lockMode) {
@@ -166,7 +331,13 @@ class RevisionManager {
         if (!after.getUnknownParents().isEmpty()) {
             throw new UnknownRevisionException();
         }
-        database.put(storageManager.currentTransaction(), entry(after.getContent()), entry(after));
+        Transaction transaction = storageManager.currentWriteTransaction();
+        database.put(transaction, entry(after.getContent()), entry(after));
+        writers.put(after.getContent(), transaction);
+        cache.invalidate(after.getContent());
+        saves.incrementAndGet();
+        String hex = after.getContent().asHexadecimalString();
+        partitions.asMap().keySet().removeIf(hex::startsWith);
         return CommandResult.of(operation.get(), after.getContent(), after.getHead());
     }
 
@@ -16,7 +16,7 @@
 package org.elasticlib.node.repository;
 
 import org.elasticlib.common.hash.Guid;
-import org.elasticlib.common.model.DigestOutputStream;
+import org.elasticlib.common.model.ResumableDigestOutputStream;
 
 /**
  * Represents a content staging session.
@@ -24,7 +24,7 @@ import org.elasticlib.common.model.DigestOutputStream;
 class StagingSession {
 
     private final Guid sessionId;
-    private final DigestOutputStream digest;
+    private final ResumableDigestOutputStream digest;
 
     /**
      * Constructor.
@@ -32,7 +32,7 @@ class StagingSession {
      * @param sessionId Staging session identifier.
      * @param digest Current digest.
      */
-    public StagingSession(Guid sessionId, DigestOutputStream digest) {
+    public StagingSession(Guid sessionId, ResumableDigestOutputStream digest) {
         this.sessionId = sessionId;
         this.digest = digest;
     }
@@ -47,7 +47,7 @@ class StagingSession {
     /**
      * @return Current digest of this session.
      */
-    public DigestOutputStream getDigest() {
+    public ResumableDigestOutputStream getDigest() {
         return digest;
     }
 }
@@ -127,19 +127,11 @@ class StatsAgent extends Agent {
     }
 
     private SortedSet<Hash> previousHead(Event latest) {
-        // Performance : We make a full-scan over the history there !
-        // A secondary index on the events per content would be welcome.
-
-        long seq = latest.getSeq() - 1;
-        while (seq > 0) {
-            for (Event event : repository.history(false, seq, 100)) {
-                if (event.getContent().equals(latest.getContent())) {
-                    return event.getRevisions();
-                }
-                seq = event.getSeq() - 1;
-            }
+        List<Event> events = repository.history(latest.getContent(), false, latest.getSeq() - 1, 1);
+        if (events.isEmpty()) {
+            // Should not happen.
+            throw new AssertionError();
         }
-        // Should not happen.
-        throw new AssertionError();
+        return events.get(0).getRevisions();
     }
 }
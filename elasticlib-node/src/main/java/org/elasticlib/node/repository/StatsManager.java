@@ -76,7 +76,9 @@ class StatsManager {
      * @param stats A RepositoryStats instance.
      */
     public void update(final RepositoryStats stats) {
-        storageManager.inTransaction(() -> statsDb.put(storageManager.currentTransaction(), statsKey, entry(stats)));
+        storageManager.inTransaction(() -> {
+            statsDb.put(storageManager.currentWriteTransaction(), statsKey, entry(stats));
+        });
         latestSnapshot.set(stats);
     }
 }
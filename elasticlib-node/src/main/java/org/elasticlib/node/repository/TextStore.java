@@ -0,0 +1,234 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.repository;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.elasticlib.common.exception.IOFailureException;
+import org.elasticlib.common.hash.Hash;
+
+/**
+ * Stores text extracted from contents, compressed and keyed by content hash. As contents are immutable, their extracted
+ * text can be reused as long as they exist, which notably avoids to read and parse them again when only their metadata
+ * change.
+ */
+class TextStore {
+
+    private static final int KEY_LENGTH = 2;
+    private static final String TEXT = "text";
+    private static final String GZ = ".gz";
+    private static final String TMP = ".tmp";
+
+    private final Path root;
+
+    private TextStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Creates a new text store.
+     *
+     * @param path repository path.
+     * @return Created text store.
+     */
+    public static TextStore create(Path path) {
+        try {
+            Files.createDirectory(path.resolve(TEXT));
+            return new TextStore(path.resolve(TEXT));
+
+        } catch (IOException e) {
+            throw new IOFailureException(e);
+        }
+    }
+
+    /**
+     * Opens an existing text store. Creates it if it does not exist, which is the case for repositories created before
+     * text was stored.
+     *
+     * @param path repository path.
+     * @return Opened text store.
+     */
+    public static TextStore open(Path path) {
+        try {
+            Files.createDirectories(path.resolve(TEXT));
+            return new TextStore(path.resolve(TEXT));
+
+        } catch (IOException e) {
+            throw new IOFailureException(e);
+        }
+    }
+
+    /**
+     * Provides a reader on the text extracted from the content which hash is supplied, if any. Caller is responsible
+     * for closing returned reader.
+     *
+     * @param hash Content hash.
+     * @return A reader on the stored text, if any.
+     */
+    public Optional<Reader> get(Hash hash) {
+        try {
+            return Optional.of(new InputStreamReader(new GZIPInputStream(Files.newInputStream(path(hash))), UTF_8));
+
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+
+        } catch (IOException e) {
+            throw new IOFailureException(e);
+        }
+    }
+
+    /**
+     * Wraps supplied reader, so that all the text read from it is recorded. Recorded text is only stored if save() is
+     * called on returned reader once it has been fully read. Caller is expected to call discard() in any case, once
+     * done with returned reader.
+     *
+     * @param hash Hash of the content this text has been extracted from.
+     * @param reader Reader on the extracted text.
+     * @return A recording reader.
+     */
+    public RecordingReader record(Hash hash, Reader reader) {
+        try {
+            return new RecordingReader(hash, reader);
+
+        } catch (IOException e) {
+            throw new IOFailureException(e);
+        }
+    }
+
+    /**
+     * Deletes text extracted from the content which hash is supplied. Does nothing if there is no such text.
+     *
+     * @param hash Content hash.
+     */
+    public void delete(Hash hash) {
+        try {
+            Files.deleteIfExists(path(hash));
+
+        } catch (IOException e) {
+            throw new IOFailureException(e);
+        }
+    }
+
+    private Path path(Hash hash) {
+        return root
+                .resolve(hash.key(KEY_LENGTH))
+                .resolve(hash.asHexadecimalString() + GZ);
+    }
+
+    /**
+     * A reader that records all text read from it.
+     */
+    public class RecordingReader extends FilterReader {
+
+        private final Hash hash;
+        private final Path tmp;
+        private final Writer writer;
+        private boolean closed;
+
+        private RecordingReader(Hash hash, Reader reader) throws IOException {
+            super(reader);
+            this.hash = hash;
+            Path path = path(hash);
+            Files.createDirectories(path.getParent());
+            tmp = path.resolveSibling(path.getFileName() + TMP);
+            writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(tmp)), UTF_8);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                writer.write(c);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int length = super.read(cbuf, off, len);
+            if (length > 0) {
+                writer.write(cbuf, off, length);
+            }
+            return length;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            throw new IOException("Skip not supported");
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * Stores text recorded so far.
+         */
+        public void save() {
+            try {
+                closeWriter();
+                Files.move(tmp, path(hash), REPLACE_EXISTING, ATOMIC_MOVE);
+
+            } catch (IOException e) {
+                throw new IOFailureException(e);
+            }
+        }
+
+        /**
+         * Discards text recorded so far, if it has not been saved.
+         */
+        public void discard() {
+            try {
+                closeWriter();
+                Files.deleteIfExists(tmp);
+
+            } catch (IOException e) {
+                throw new IOFailureException(e);
+            }
+        }
+
+        private void closeWriter() throws IOException {
+            if (!closed) {
+                closed = true;
+                writer.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+
+            } finally {
+                closeWriter();
+            }
+        }
+    }
+}
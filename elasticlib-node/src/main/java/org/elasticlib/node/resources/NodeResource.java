@@ -15,10 +15,18 @@
  */
 package org.elasticlib.node.resources;
 
+import java.util.List;
 import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import org.elasticlib.common.model.NodeInfo;
+import org.elasticlib.common.model.TaskStats;
 import org.elasticlib.node.service.NodeService;
 
 /**
@@ -31,7 +39,32 @@ public class NodeResource {
     private NodeService nodeService;
 
     /**
-     * Provides the definition of the local node.
+     * Provides the definition of the local node. Returned info is tagged, so that a client which already holds it may
+     * conditionally request it again.
+     * <p>
+     * Response:<br>
+     * - 200 OK: Operation succeeded.<br>
+     * - 304 NOT MODIFIED: Info matches the tag supplied in the If-None-Match header.<br>
+     *
+     * @param request request context
+     * @return HTTP response
+     */
+    @GET
+    public Response getNodeInfo(@Context Request request) {
+        NodeInfo info = nodeService.getNodeInfo();
+        EntityTag tag = new EntityTag(info.getTag().asHexadecimalString());
+        ResponseBuilder builder = request.evaluatePreconditions(tag);
+        if (builder != null) {
+            return builder.tag(tag).build();
+        }
+        return Response.ok()
+                .entity(info)
+                .tag(tag)
+                .build();
+    }
+
+    /**
+     * Provides statistics about asynchronous tasks executed by the local node, per task type.
      * <p>
      * Response:<br>
      * - 200 OK: Operation succeeded.<br>
@@ -39,7 +72,9 @@ public class NodeResource {
      * @return output data
      */
     @GET
-    public NodeInfo getNodeInfo() {
-        return nodeService.getNodeInfo();
+    @Path("tasks")
+    public GenericEntity<List<TaskStats>> listTaskStats() {
+        return new GenericEntity<List<TaskStats>>(nodeService.listTaskStats()) {
+        };
     }
 }
@@ -21,13 +21,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import static java.util.stream.Collectors.toList;
 import javax.inject.Inject;
+import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
@@ -37,6 +43,8 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.MediaType;
@@ -49,6 +57,7 @@ import org.elasticlib.common.exception.IOFailureException;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.hash.Hash;
 import static org.elasticlib.common.json.JsonReading.read;
+import static org.elasticlib.common.json.JsonReading.readAll;
 import static org.elasticlib.common.json.JsonValidation.hasStringValue;
 import static org.elasticlib.common.json.JsonValidation.isValid;
 import org.elasticlib.common.metadata.Properties.Common;
@@ -57,7 +66,9 @@ import org.elasticlib.common.model.ContentInfo;
 import org.elasticlib.common.model.Digest;
 import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.IndexEntry;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.RepositoryInfo;
+import org.elasticlib.common.model.RepositoryMetrics;
 import org.elasticlib.common.model.Revision;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.StagingInfo;
@@ -85,14 +96,18 @@ public class RepositoriesResource {
     private static final String CONTENT = "content";
     private static final String OFFSET = "offset";
     private static final String LENGTH = "length";
+    private static final String KEY = "key";
     private static final String QUERY = "query";
     private static final String SORT = "sort";
     private static final String FROM = "from";
     private static final String SIZE = "size";
+    private static final String TIMEOUT = "timeout";
+    private static final String SOURCE = "source";
     private static final String ASC = "asc";
     private static final String DESC = "desc";
     private static final String DEFAULT_FROM = "0";
     private static final String DEFAULT_SIZE = "20";
+    private static final String DEFAULT_TIMEOUT = "20000";
 
     @Inject
     private RepositoriesService repositoriesService;
@@ -358,6 +373,36 @@ public class RepositoriesResource {
         throw newInvalidJsonException();
     }
 
+    /**
+     * Merges several revision trees at once, in a single transaction. Either all of them are merged, or none of them
+     * is.
+     * <p>
+     * Response:<br>
+     * - 200 OK: Operation succeeded.<br>
+     * - 400 BAD REQUEST: Invalid JSON data.<br>
+     * - 404 NOT FOUND: Repository or a content was not found.<br>
+     * - 503 SERVICE UNAVAILABLE: Repository is not started.
+     *
+     * @param repositoryKey repository name or encoded GUID
+     * @param json input JSON data
+     * @return output data
+     */
+    @POST
+    @Path("{repository}/trees")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public GenericEntity<List<CommandResult>> mergeTrees(@PathParam(REPOSITORY) String repositoryKey,
+                                                         JsonArray json) {
+        for (JsonValue value : json) {
+            if (value.getValueType() != JsonValue.ValueType.OBJECT ||
+                    !isValid((JsonObject) value, RevisionTree.class)) {
+                throw newInvalidJsonException();
+            }
+        }
+        List<CommandResult> results = repository(repositoryKey).mergeTrees(readAll(json, RevisionTree.class));
+        return new GenericEntity<List<CommandResult>>(results) {
+        };
+    }
+
     /**
      * Deletes a content.
      * <p>
@@ -403,6 +448,46 @@ public class RepositoriesResource {
         return repository(repositoryKey).getContentInfo(hash);
     }
 
+    /**
+     * Imports a content into a repository, directly from another repository, possibly hosted by another node. Waits
+     * for import to complete, up to supplied timeout. Import goes on in background if timeout expires.
+     * <p>
+     * Response:<br>
+     * - 200 OK: Operation succeeded. Returned info reflects current state of the content in the repository.<br>
+     * - 400 BAD REQUEST: Invalid query parameters.<br>
+     * - 404 NOT FOUND: Repository was not found, or content was not found in source repository.<br>
+     * - 503 SERVICE UNAVAILABLE: Repository is not started.
+     *
+     * @param repositoryKey repository name or encoded GUID
+     * @param hash content hash
+     * @param source GUID of the repository to import content from.
+     * @param timeout maximum time to wait for, in milliseconds.
+     * @param response asynchronous response.
+     */
+    @POST
+    @Path("{repository}/imports/{hash}")
+    public void importContent(@PathParam(REPOSITORY) String repositoryKey,
+                              @PathParam(HASH) Hash hash,
+                              @QueryParam(SOURCE) Guid source,
+                              @QueryParam(TIMEOUT) @DefaultValue(DEFAULT_TIMEOUT) long timeout,
+                              @Suspended AsyncResponse response) {
+        check(source != null, "Source repository is expected");
+        check(timeout > 0, "Timeout is expected to be strictly positive");
+        CompletableFuture<ContentInfo> future = repositoriesService.importContent(repositoryKey, hash, source);
+        response.setTimeoutHandler(asyncResponse -> {
+            asyncResponse.resume(repository(repositoryKey).getContentInfo(hash));
+        });
+        response.setTimeout(timeout, TimeUnit.MILLISECONDS);
+        future.whenComplete((info, e) -> {
+            if (e == null) {
+                response.resume(info);
+
+            } else {
+                response.resume(e instanceof CompletionException ? e.getCause() : e);
+            }
+        });
+    }
+
     /**
      * Provides digest of a content.
      * <p>
@@ -588,6 +673,155 @@ public class RepositoriesResource {
         };
     }
 
+    /**
+     * Provides history of a given content.
+     * <p>
+     * Response:<br>
+     * - 200 OK: Operation succeeded.<br>
+     * - 400 BAD REQUEST: Invalid query parameters.<br>
+     * - 404 NOT FOUND: Repository was not found.<br>
+     * - 503 SERVICE UNAVAILABLE: Repository is not started.
+     *
+     * @param repositoryKey repository name or encoded GUID
+     * @param hash content hash
+     * @param sort chronological sorting. Allowed values are "asc" and "desc".
+     * @param from sequence value to start with.
+     * @param size number of results to return.
+     * @return output data
+     */
+    @GET
+    @Path("{repository}/history/{hash}")
+    public GenericEntity<List<Event>> history(@PathParam(REPOSITORY) String repositoryKey,
+                                              @PathParam(HASH) Hash hash,
+                                              @QueryParam(SORT) @DefaultValue(DESC) String sort,
+                                              @QueryParam(FROM) Long from,
+                                              @QueryParam(SIZE) @DefaultValue(DEFAULT_SIZE) int size) {
+        if (!sort.equals(ASC) && !sort.equals(DESC)) {
+            throw newInvalidJsonException();
+        }
+        if (from == null) {
+            from = sort.equals(ASC) ? 0 : Long.MAX_VALUE;
+        }
+        List<Event> events = repository(repositoryKey).history(hash, sort.equals(ASC), from, size);
+        return new GenericEntity<List<Event>>(events) {
+        };
+    }
+
+    /**
+     * Provides revision trees of a repository, sorted by content hash. Allows to iterate over current state of a
+     * repository, without having to replay its history.
+     * <p>
+     * Response:<br>
+     * - 200 OK: Operation succeeded.<br>
+     * - 404 NOT FOUND: Repository was not found.<br>
+     * - 503 SERVICE UNAVAILABLE: Repository is not started.
+     *
+     * @param repositoryKey repository name or encoded GUID
+     * @param from hash of the content to start with.
+     * @param size number of results to return.
+     * @return output data
+     */
+    @GET
+    @Path("{repository}/trees")
+    public GenericEntity<List<RevisionTree>> getTrees(@PathParam(REPOSITORY) String repositoryKey,
+                                                      @QueryParam(FROM) Hash from,
+                                                      @QueryParam(SIZE) @DefaultValue(DEFAULT_SIZE) int size) {
+        if (from == null) {
+            from = Hash.lowest("");
+        }
+        List<RevisionTree> trees = repository(repositoryKey).getTrees(from, size);
+        return new GenericEntity<List<RevisionTree>>(trees) {
+        };
+    }
+
+    /**
+     * Provides latest events of repository history, in reverse chronological order, down to supplied sequence value.
+     * If there is no such event yet, waits for some to happen, up to supplied timeout. This allows remote nodes to be
+     * notified of changes in a timely fashion.
+     * <p>
+     * Response:<br>
+     * - 200 OK: Operation succeeded. Returned list is empty if timeout expired.<br>
+     * - 400 BAD REQUEST: Invalid query parameters.<br>
+     * - 404 NOT FOUND: Repository was not found.<br>
+     * - 503 SERVICE UNAVAILABLE: Repository is not started.
+     *
+     * @param repositoryKey repository name or encoded GUID
+     * @param from sequence value of the oldest event to return.
+     * @param size maximum number of results to return.
+     * @param timeout maximum time to wait for, in milliseconds.
+     * @param response asynchronous response.
+     */
+    @GET
+    @Path("{repository}/feed")
+    public void awaitHistory(@PathParam(REPOSITORY) String repositoryKey,
+                             @QueryParam(FROM) @DefaultValue(DEFAULT_FROM) long from,
+                             @QueryParam(SIZE) @DefaultValue(DEFAULT_SIZE) int size,
+                             @QueryParam(TIMEOUT) @DefaultValue(DEFAULT_TIMEOUT) long timeout,
+                             @Suspended AsyncResponse response) {
+        check(timeout > 0, "Timeout is expected to be strictly positive");
+        CompletableFuture<List<Event>> future = repository(repositoryKey).awaitHistory(from, size);
+        response.setTimeoutHandler(asyncResponse -> {
+            future.cancel(false);
+            asyncResponse.resume(events(emptyList()));
+        });
+        response.setTimeout(timeout, TimeUnit.MILLISECONDS);
+        future.whenComplete((events, e) -> {
+            if (e == null) {
+                response.resume(events(events));
+
+            } else if (!future.isCancelled()) {
+                response.resume(e instanceof CompletionException ? e.getCause() : e);
+            }
+        });
+    }
+
+    private static GenericEntity<List<Event>> events(List<Event> events) {
+        return new GenericEntity<List<Event>>(events) {
+        };
+    }
+
+    /**
+     * Provides the partitions directly nested in a given one. Comparing partitions of two repositories, and
+     * recursively the nested partitions of those which differ, allows to find out which contents they are not in sync
+     * for, without having to compare them one by one.
+     * <p>
+     * Response:<br>
+     * - 200 OK: Operation succeeded.<br>
+     * - 400 BAD REQUEST: Invalid query parameters.<br>
+     * - 404 NOT FOUND: Repository was not found.<br>
+     * - 503 SERVICE UNAVAILABLE: Repository is not started.
+     *
+     * @param repositoryKey repository name or encoded GUID
+     * @param key key of the parent partition, empty for the whole repository.
+     * @return output data
+     */
+    @GET
+    @Path("{repository}/partitions")
+    public GenericEntity<List<Partition>> getPartitions(@PathParam(REPOSITORY) String repositoryKey,
+                                                        @QueryParam(KEY) @DefaultValue("") String key) {
+        check(Hash.isValidKey(key), "Invalid partition key");
+        List<Partition> partitions = repository(repositoryKey).getPartitions(key.toLowerCase());
+        return new GenericEntity<List<Partition>>(partitions) {
+        };
+    }
+
+    /**
+     * Provides runtime metrics of a repository. These metrics are reset each time the repository is opened.
+     * <p>
+     * Response:<br>
+     * - 200 OK: Operation succeeded.<br>
+     * - 404 NOT FOUND: Repository was not found.<br>
+     * - 503 SERVICE UNAVAILABLE: Repository is not started.
+     *
+     * @param repositoryKey repository name or encoded GUID
+     * @return output data
+     */
+    @GET
+    @Path("{repository}/metrics")
+    public RepositoryMetrics getMetrics(@PathParam(REPOSITORY) String repositoryKey) {
+        return repository(repositoryKey).getMetrics();
+    }
+
     /**
      * Finds index entries matching supplied query.
      * <p>
@@ -15,13 +15,17 @@
  */
 package org.elasticlib.node.service;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.elasticlib.common.model.NodeDef;
 import org.elasticlib.common.model.NodeInfo;
+import org.elasticlib.common.model.TaskStats;
 import org.elasticlib.node.components.LocalRepositoriesPool;
 import org.elasticlib.node.components.NodeGuidProvider;
 import org.elasticlib.node.components.NodeNameProvider;
 import org.elasticlib.node.components.PublishUrisProvider;
 import org.elasticlib.node.manager.storage.StorageManager;
+import org.elasticlib.node.manager.task.TaskManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,27 +36,32 @@ public class NodeService {
 
     private static final Logger LOG = LoggerFactory.getLogger(NodeService.class);
 
+    private final TaskManager taskManager;
     private final StorageManager storageManager;
     private final LocalRepositoriesPool localRepositoriesPool;
     private final NodeNameProvider nodeNameProvider;
     private final NodeGuidProvider nodeGuidProvider;
     private final PublishUrisProvider publishUrisProvider;
+    private final AtomicReference<NodeInfo> latestInfo = new AtomicReference<>();
 
     /**
      * Constructor.
      *
+     * @param taskManager Asynchronous tasks manager.
      * @param storageManager Persistent storage provider.
      * @param localRepositoriesPool Local repositories pool.
      * @param nodeNameProvider Local node name provider.
      * @param nodeGuidProvider Local node GUID provider.
      * @param publishUrisProvider Local node publish URI(s) provider.
      */
-    public NodeService(StorageManager storageManager,
+    public NodeService(TaskManager taskManager,
+                       StorageManager storageManager,
                        LocalRepositoriesPool localRepositoriesPool,
                        NodeNameProvider nodeNameProvider,
                        NodeGuidProvider nodeGuidProvider,
                        PublishUrisProvider publishUrisProvider) {
 
+        this.taskManager = taskManager;
         this.storageManager = storageManager;
         this.localRepositoriesPool = localRepositoriesPool;
         this.nodeNameProvider = nodeNameProvider;
@@ -69,12 +78,29 @@ public class NodeService {
     }
 
     /**
+     * Provides info about the local node. As long as it does not change, the same instance is returned, so that its
+     * tag is not computed again.
+     *
      * @return Info about the local node.
      */
     public NodeInfo getNodeInfo() {
         LOG.info("Returning local node info");
-        return new NodeInfo(nodeDef(),
-                            storageManager.inTransaction(localRepositoriesPool::listRepositoryInfos));
+        NodeInfo info = new NodeInfo(nodeDef(),
+                                     storageManager.inTransaction(localRepositoriesPool::listRepositoryInfos));
+        NodeInfo latest = latestInfo.get();
+        if (info.equals(latest)) {
+            return latest;
+        }
+        latestInfo.set(info);
+        return info;
+    }
+
+    /**
+     * @return Statistics about asynchronous tasks executed by the local node.
+     */
+    public List<TaskStats> listTaskStats() {
+        LOG.info("Returning task stats");
+        return taskManager.stats();
     }
 
     private NodeDef nodeDef() {
@@ -18,16 +18,25 @@ package org.elasticlib.node.service;
 import static com.google.common.base.Joiner.on;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.filter;
+import static java.lang.Math.max;
 import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import static java.time.Instant.now;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import static java.util.Collections.singleton;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.elasticlib.common.config.Config;
 import static org.elasticlib.common.config.ConfigUtil.duration;
 import static org.elasticlib.common.config.ConfigUtil.unit;
@@ -40,6 +49,8 @@ import org.elasticlib.node.components.NodePingHandler;
 import org.elasticlib.node.components.RemoteNodesMessagesFactory;
 import org.elasticlib.node.config.NodeConfig;
 import static org.elasticlib.node.config.NodeConfig.REMOTES_CLEANUP_EXPIRATION;
+import static org.elasticlib.node.config.NodeConfig.REMOTES_PING_INTERVAL;
+import static org.elasticlib.node.config.NodeConfig.REMOTES_PING_POOL_SIZE;
 import org.elasticlib.node.dao.RemotesDao;
 import org.elasticlib.node.manager.message.MessageManager;
 import org.elasticlib.node.manager.storage.StorageManager;
@@ -65,6 +76,7 @@ public class RemotesService {
     private final NodeGuidProvider nodeGuidProvider;
     private final NodePingHandler nodePingHandler;
     private final RemoteNodesMessagesFactory remoteNodesMessagesFactory;
+    private final ExecutorService pingExecutor;
     private final AtomicBoolean started = new AtomicBoolean();
     private Task pingTask;
     private Task cleanupTask;
@@ -101,6 +113,10 @@ public class RemotesService {
         this.nodeGuidProvider = nodeGuidProvider;
         this.nodePingHandler = nodePingHandler;
         this.remoteNodesMessagesFactory = remoteNodesMessagesFactory;
+
+        AtomicInteger counter = new AtomicInteger();
+        pingExecutor = newFixedThreadPool(config.getInt(REMOTES_PING_POOL_SIZE),
+                                          runnable -> new Thread(runnable, "ping-" + counter.incrementAndGet()));
     }
 
     /**
@@ -137,6 +153,7 @@ public class RemotesService {
         if (cleanupTask != null) {
             cleanupTask.cancel();
         }
+        pingExecutor.shutdownNow();
     }
 
     /**
@@ -258,19 +275,54 @@ public class RemotesService {
     }
 
     /**
-     * Pings all known remote nodes and refresh info about them.
+     * Pings all known remote nodes and refresh info about them. Remote nodes are pinged concurrently, and so are the
+     * URIs of each of them, with a bounded pool. A remote node is considered unreachable once all its calls have
+     * failed, or have not responded within a ping interval. Such calls are then interrupted, or discarded if still
+     * queued, so that they do not hold pool threads in next rounds. Only infos which have actually changed are saved.
      */
     public void pingRemotes() {
         LOG.info("Pinging remote nodes");
-        for (RemoteInfo current : remoteInfos()) {
+        List<RemoteInfo> currents = remoteInfos();
+        List<CompletableFuture<Optional<RemoteInfo>>> pings = new ArrayList<>(currents.size());
+        for (RemoteInfo current : currents) {
+            pings.add(nodePingHandler.ping(uris(current), current.getNodeInfo(), pingExecutor));
+        }
+        long deadline = System.nanoTime() + NANOSECONDS.convert(duration(config, REMOTES_PING_INTERVAL),
+                                                                unit(config, REMOTES_PING_INTERVAL));
+        List<RemoteInfo> befores = new ArrayList<>();
+        List<RemoteInfo> afters = new ArrayList<>();
+        for (int i = 0; i < currents.size(); i++) {
             if (!started.get()) {
+                pings.forEach(ping -> ping.cancel(true));
                 return;
             }
-            RemoteInfo updated = nodePingHandler.ping(uris(current), current.getGuid())
-                    .orElse(current.asUnreachable());
+            RemoteInfo current = currents.get(i);
+            RemoteInfo updated = await(pings.get(i), deadline).orElse(current.asUnreachable());
+            if (updated.differsFrom(current)) {
+                befores.add(current);
+                afters.add(updated);
+            }
+        }
+        if (afters.isEmpty()) {
+            return;
+        }
+        storageManager.inTransaction(() -> afters.forEach(remotesDao::saveRemoteInfo));
+        for (int i = 0; i < afters.size(); i++) {
+            remoteNodesMessagesFactory.updateMessages(befores.get(i), afters.get(i)).forEach(messageManager::post);
+        }
+    }
+
+    private static Optional<RemoteInfo> await(CompletableFuture<Optional<RemoteInfo>> ping, long deadline) {
+        try {
+            return ping.get(max(deadline - System.nanoTime(), 0), NANOSECONDS);
+
+        } catch (TimeoutException e) {
+            // Interrupts calls still in progress.
+            ping.cancel(true);
+            return Optional.empty();
 
-            storageManager.inTransaction(() -> remotesDao.saveRemoteInfo(updated));
-            remoteNodesMessagesFactory.updateMessages(current, updated).forEach(messageManager::post);
+        } catch (InterruptedException | ExecutionException e) {
+            throw new AssertionError(e);
         }
     }
 
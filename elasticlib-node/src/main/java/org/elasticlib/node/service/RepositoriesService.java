@@ -16,15 +16,30 @@
 package org.elasticlib.node.service;
 
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.elasticlib.common.config.Config;
+import org.elasticlib.common.hash.Guid;
+import org.elasticlib.common.hash.Hash;
+import org.elasticlib.common.model.ContentInfo;
 import org.elasticlib.common.model.RepositoryDef;
 import org.elasticlib.common.model.RepositoryInfo;
+import org.elasticlib.common.model.RevisionTree;
+import org.elasticlib.node.components.ContentTransfer;
 import org.elasticlib.node.components.LocalRepositoriesPool;
+import org.elasticlib.node.components.RepositoriesProvider;
+import static org.elasticlib.node.config.NodeConfig.TASKS_TRANSFERS_MAX_PENDING;
 import org.elasticlib.node.manager.message.MessageManager;
 import org.elasticlib.node.manager.message.RepositoryAvailable;
 import org.elasticlib.node.manager.message.RepositoryRemoved;
 import org.elasticlib.node.manager.message.RepositoryUnavailable;
 import org.elasticlib.node.manager.storage.StorageManager;
+import org.elasticlib.node.manager.task.TaskManager;
+import org.elasticlib.node.manager.task.TaskType;
 import org.elasticlib.node.repository.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,24 +51,45 @@ public class RepositoriesService {
 
     private static final Logger LOG = LoggerFactory.getLogger(RepositoriesService.class);
 
+    private final Config config;
+    private final TaskManager taskManager;
     private final StorageManager storageManager;
     private final MessageManager messageManager;
     private final LocalRepositoriesPool localRepositoriesPool;
+    private final RepositoriesProvider repositoriesProvider;
+    private final Map<String, CompletableFuture<ContentInfo>> imports = new HashMap<>();
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
 
     /**
      * Constructor.
      *
+     * @param config Configuration holder.
+     * @param taskManager Asynchronous tasks manager.
      * @param storageManager Persistent storage provider.
      * @param messageManager Messaging infrastructure manager.
      * @param localRepositoriesPool Local repositories pool.
+     * @param repositoriesProvider Repositories provider.
      */
-    public RepositoriesService(StorageManager storageManager,
+    public RepositoriesService(Config config,
+                               TaskManager taskManager,
+                               StorageManager storageManager,
                                MessageManager messageManager,
-                               LocalRepositoriesPool localRepositoriesPool) {
+                               LocalRepositoriesPool localRepositoriesPool,
+                               RepositoriesProvider repositoriesProvider) {
 
+        this.config = config;
+        this.taskManager = taskManager;
         this.storageManager = storageManager;
         this.messageManager = messageManager;
         this.localRepositoriesPool = localRepositoriesPool;
+        this.repositoriesProvider = repositoriesProvider;
+    }
+
+    /**
+     * Stops this service. Interrupts imports in progress, and declines further ones.
+     */
+    public void stop() {
+        stopped.set(true);
     }
 
     /**
@@ -163,4 +199,56 @@ public class RepositoriesService {
         LOG.info("Returning repository {}", key);
         return storageManager.inTransaction(() -> localRepositoriesPool.getRepository(key));
     }
+
+    /**
+     * Imports a content into a local repository, directly from another repository, which may be hosted by another
+     * node. This allows a node which replicates between two other ones to spare the transfer of the content through
+     * itself. Import is performed asynchronously. Requesting an import which is already in progress does not start
+     * another one. Import is declined if too many ones are already pending, in which case returned future is already
+     * completed.
+     *
+     * @param key Destination repository name or encoded GUID.
+     * @param hash Content hash.
+     * @param source Source repository GUID.
+     * @return A future info about the content in the destination repository, once import is completed.
+     */
+    public CompletableFuture<ContentInfo> importContent(String key, Hash hash, Guid source) {
+        LOG.info("Importing content {} from {} to {}", hash, source, key);
+        Repository destination = getRepository(key);
+        String id = destination.getDef().getGuid() + "/" + hash;
+        synchronized (imports) {
+            if (imports.containsKey(id)) {
+                return imports.get(id);
+            }
+            if (stopped.get() || imports.size() >= config.getInt(TASKS_TRANSFERS_MAX_PENDING)) {
+                LOG.warn("Declining import of content {}, service stopped or too many imports pending", hash);
+                return completedFuture(destination.getContentInfo(hash));
+            }
+            CompletableFuture<ContentInfo> future = new CompletableFuture<>();
+            imports.put(id, future);
+            taskManager.execute(TaskType.TRANSFERS, "Importing content " + hash + " from " + source, () -> {
+                try {
+                    future.complete(importContent(destination, hash, source));
+
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+
+                } finally {
+                    synchronized (imports) {
+                        imports.remove(id);
+                    }
+                }
+            });
+            return future;
+        }
+    }
+
+    private ContentInfo importContent(Repository destination, Hash hash, Guid guid) {
+        Repository source = storageManager.inTransaction(() -> repositoriesProvider.getRepository(guid));
+        RevisionTree tree = source.getTree(hash);
+        if (!tree.isDeleted()) {
+            new ContentTransfer(config, source, destination).run(hash, tree.getLength(), stopped::get);
+        }
+        return destination.getContentInfo(hash);
+    }
 }
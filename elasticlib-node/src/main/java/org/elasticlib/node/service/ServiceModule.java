@@ -47,9 +47,12 @@ public class ServiceModule {
                          DaoModule daoModule,
                          ComponentsModule componentsModule) {
 
-        repositoriesService = new RepositoriesService(managerModule.getStorageManager(),
+        repositoriesService = new RepositoriesService(config,
+                                                      managerModule.getTaskManager(),
+                                                      managerModule.getStorageManager(),
                                                       managerModule.getMessageManager(),
-                                                      componentsModule.getLocalRepositoriesPool());
+                                                      componentsModule.getLocalRepositoriesPool(),
+                                                      componentsModule.getRepositoriesProvider());
 
         replicationsService = new ReplicationsService(managerModule.getStorageManager(),
                                                       managerModule.getMessageManager(),
@@ -57,7 +60,8 @@ public class ServiceModule {
                                                       componentsModule.getRepositoriesProvider(),
                                                       componentsModule.getReplicationAgentsPool());
 
-        nodeService = new NodeService(managerModule.getStorageManager(),
+        nodeService = new NodeService(managerModule.getTaskManager(),
+                                      managerModule.getStorageManager(),
                                       componentsModule.getLocalRepositoriesPool(),
                                       componentsModule.getNodeNameProvider(),
                                       componentsModule.getNodeGuidProvider(),
@@ -88,6 +92,7 @@ public class ServiceModule {
     public void stop() {
         remotesService.stop();
         replicationsService.stop();
+        repositoriesService.stop();
     }
 
     /**
@@ -24,19 +24,36 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import org.elasticlib.common.config.Config;
 import org.elasticlib.common.hash.Hash;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_BATCH_SIZE;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_CONTENT_CHUNK_DURATION;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_CONTENT_CHUNK_MAX_SIZE;
 import static org.elasticlib.node.config.NodeConfig.AGENTS_CONTENT_CHUNK_SIZE;
 import static org.elasticlib.node.config.NodeConfig.AGENTS_HISTORY_FETCH_SIZE;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_REPLICATION_BOOTSTRAP;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_REPLICATION_CONCURRENCY;
 import static org.elasticlib.node.config.NodeConfig.CLIENT_CONNECT_TIMEOUT;
 import static org.elasticlib.node.config.NodeConfig.CLIENT_MAX_CONNECTIONS;
 import static org.elasticlib.node.config.NodeConfig.CLIENT_MAX_CONNECTIONS_PER_ROUTE;
 import static org.elasticlib.node.config.NodeConfig.CLIENT_READ_TIMEOUT;
+import static org.elasticlib.node.config.NodeConfig.INDEX_COMMIT_ENABLED;
+import static org.elasticlib.node.config.NodeConfig.INDEX_COMMIT_INTERVAL;
+import static org.elasticlib.node.config.NodeConfig.INDEX_EXTRACTION_POOL_SIZE;
+import static org.elasticlib.node.config.NodeConfig.REMOTES_PING_INTERVAL;
+import static org.elasticlib.node.config.NodeConfig.REMOTES_PING_POOL_SIZE;
+import static org.elasticlib.node.config.NodeConfig.REVISIONS_CACHE_MAX_SIZE;
 import static org.elasticlib.node.config.NodeConfig.STAGING_SESSIONS_CLEANUP_ENABLED;
 import static org.elasticlib.node.config.NodeConfig.STAGING_SESSIONS_CLEANUP_INTERVAL;
 import static org.elasticlib.node.config.NodeConfig.STAGING_SESSIONS_MAX_SIZE;
 import static org.elasticlib.node.config.NodeConfig.STAGING_SESSIONS_TIMEOUT;
+import static org.elasticlib.node.config.NodeConfig.STORAGE_DURABILITY;
+import static org.elasticlib.node.config.NodeConfig.STORAGE_GROUP_COMMIT_ENABLED;
 import static org.elasticlib.node.config.NodeConfig.STORAGE_SYNC_ENABLED;
 import static org.elasticlib.node.config.NodeConfig.STORAGE_SYNC_INTERVAL;
+import static org.elasticlib.node.config.NodeConfig.TASKS_MESSAGING_POOL_SIZE;
 import static org.elasticlib.node.config.NodeConfig.TASKS_POOL_SIZE;
+import static org.elasticlib.node.config.NodeConfig.TASKS_SYNC_POOL_SIZE;
+import static org.elasticlib.node.config.NodeConfig.TASKS_TRANSFERS_MAX_PENDING;
+import static org.elasticlib.node.config.NodeConfig.TASKS_TRANSFERS_POOL_SIZE;
 
 /**
  * Test utilities.
@@ -69,15 +86,32 @@ public final class TestUtil {
                 .set(CLIENT_READ_TIMEOUT, "")
                 .set(CLIENT_MAX_CONNECTIONS, 10)
                 .set(CLIENT_MAX_CONNECTIONS_PER_ROUTE, 2)
+                .set(REMOTES_PING_INTERVAL, "10 s")
+                .set(REMOTES_PING_POOL_SIZE, 2)
                 .set(TASKS_POOL_SIZE, 1)
+                .set(TASKS_MESSAGING_POOL_SIZE, 1)
+                .set(TASKS_TRANSFERS_POOL_SIZE, 1)
+                .set(TASKS_TRANSFERS_MAX_PENDING, 10)
+                .set(TASKS_SYNC_POOL_SIZE, 1)
                 .set(AGENTS_HISTORY_FETCH_SIZE, 10)
+                .set(AGENTS_BATCH_SIZE, 10)
                 .set(AGENTS_CONTENT_CHUNK_SIZE, 256)
+                .set(AGENTS_CONTENT_CHUNK_MAX_SIZE, 4096)
+                .set(AGENTS_CONTENT_CHUNK_DURATION, "1 s")
+                .set(AGENTS_REPLICATION_CONCURRENCY, 2)
+                .set(AGENTS_REPLICATION_BOOTSTRAP, true)
                 .set(STAGING_SESSIONS_MAX_SIZE, 10)
                 .set(STAGING_SESSIONS_TIMEOUT, "10 s")
                 .set(STAGING_SESSIONS_CLEANUP_ENABLED, true)
                 .set(STAGING_SESSIONS_CLEANUP_INTERVAL, "10 s")
                 .set(STORAGE_SYNC_ENABLED, true)
                 .set(STORAGE_SYNC_INTERVAL, "10 s")
+                .set(STORAGE_DURABILITY, "sync")
+                .set(STORAGE_GROUP_COMMIT_ENABLED, true)
+                .set(INDEX_COMMIT_ENABLED, true)
+                .set(INDEX_COMMIT_INTERVAL, "10 s")
+                .set(INDEX_EXTRACTION_POOL_SIZE, 2)
+                .set(REVISIONS_CACHE_MAX_SIZE, 100)
                 .set(JE_LOCK_TIMEOUT, "1 min");
     }
 
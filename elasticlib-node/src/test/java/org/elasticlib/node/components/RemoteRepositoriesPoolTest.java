@@ -111,6 +111,7 @@ public class RemoteRepositoriesPoolTest {
 
         Client client = mock(Client.class, RETURNS_DEEP_STUBS);
         when(clientManager.getClient()).thenReturn(client);
+        when(clientManager.getFeedClient()).thenReturn(client);
 
         when(client.target(NODE_URI)
                 .repositories()
@@ -257,6 +258,20 @@ public class RemoteRepositoriesPoolTest {
         });
     }
 
+    /**
+     * Test.
+     */
+    @Test
+    public void tryGetRepositoryAfterCreationTest() {
+        storageManager.inTransaction(() -> {
+            assertThat(remoteRepositoriesPool.tryGetRepository(REPOSITORY_GUID).isPresent()).isFalse();
+        });
+        create(reachable(open()));
+        storageManager.inTransaction(() -> {
+            assertThat(remoteRepositoriesPool.tryGetRepository(REPOSITORY_GUID).isPresent()).isTrue();
+        });
+    }
+
     /**
      * Test.
      */
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.components;
+
+import static com.google.common.collect.Iterables.getLast;
+import static java.time.Instant.now;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import static java.util.stream.Collectors.toList;
+import org.elasticlib.common.config.Config;
+import org.elasticlib.common.exception.UnknownRevisionException;
+import org.elasticlib.common.hash.Guid;
+import org.elasticlib.common.hash.Hash;
+import org.elasticlib.common.model.AgentInfo;
+import org.elasticlib.common.model.AgentState;
+import org.elasticlib.common.model.ContentInfo;
+import org.elasticlib.common.model.ContentState;
+import org.elasticlib.common.model.Event;
+import org.elasticlib.common.model.Event.EventBuilder;
+import org.elasticlib.common.model.Operation;
+import org.elasticlib.common.model.Revision.RevisionBuilder;
+import org.elasticlib.common.model.RevisionTree;
+import org.elasticlib.common.model.RevisionTree.RevisionTreeBuilder;
+import org.elasticlib.common.model.StagingInfo;
+import static org.elasticlib.node.TestUtil.async;
+import static org.elasticlib.node.TestUtil.config;
+import static org.elasticlib.node.config.NodeConfig.AGENTS_REPLICATION_BOOTSTRAP;
+import org.elasticlib.node.dao.CurSeqsDao;
+import org.elasticlib.node.repository.Agent;
+import org.elasticlib.node.repository.Repository;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Replication agent unit tests.
+ */
+@Test(singleThreaded = true)
+public class ReplicationAgentTest {
+
+    private static final String CUR_SEQ_KEY = "test";
+    private static final Hash FIRST = new Hash("8d5f3c77e94a0cad3a32340d342135f43dbb7cbb");
+    private static final Hash SECOND = new Hash("0d99dd9895a2a1c485e0c75f79f92cc14457bb62");
+
+    private final List<Event> history = new CopyOnWriteArrayList<>();
+    private final List<Long> savedSeqs = new CopyOnWriteArrayList<>();
+    private Repository source;
+    private Repository destination;
+    private CurSeqsDao curSeqsDao;
+
+    /**
+     * Test set-up.
+     */
+    @BeforeMethod
+    public void setUp() {
+        history.clear();
+        savedSeqs.clear();
+        source = mock(Repository.class);
+        destination = mock(Repository.class);
+        curSeqsDao = mock(CurSeqsDao.class);
+
+        when(source.history(eq(true), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long first = (Long) invocation.getArguments()[1];
+            int number = (Integer) invocation.getArguments()[2];
+            return history.stream()
+                    .filter(event -> event.getSeq() >= first)
+                    .limit(number)
+                    .collect(toList());
+        });
+        when(source.history(false, Long.MAX_VALUE, 1)).thenAnswer(invocation -> {
+            return history.subList(history.size() - 1, history.size());
+        });
+        when(source.getTree(any(Hash.class))).thenAnswer(invocation -> {
+            return tree((Hash) invocation.getArguments()[0]);
+        });
+        when(destination.getContentInfo(any(Hash.class))).thenAnswer(invocation -> {
+            return new ContentInfo(ContentState.PRESENT, (Hash) invocation.getArguments()[0], 0, emptyList());
+        });
+        doAnswer(invocation -> {
+            savedSeqs.add((Long) invocation.getArguments()[1]);
+            return null;
+        }).when(curSeqsDao).save(anyString(), anyLong());
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void mergeFailureTest() {
+        history.add(event(1, FIRST));
+        history.add(event(2, SECOND));
+
+        when(destination.mergeTrees(anyListOf(RevisionTree.class))).thenThrow(new UnknownRevisionException());
+        when(destination.mergeTree(tree(SECOND))).thenThrow(new UnknownRevisionException()).thenReturn(null);
+
+        Config config = config().set(AGENTS_REPLICATION_BOOTSTRAP, false);
+        Agent agent = new ReplicationAgent(Guid.random(), config, null, source, destination, curSeqsDao, CUR_SEQ_KEY,
+                                           false);
+        agent.start();
+        try {
+            // Trees are merged one by one once bulk merge failed, and the event whose tree still failed is retried.
+            async(() -> {
+                AgentInfo info = agent.info();
+                assertThat(info.getState()).isEqualTo(AgentState.WAITING);
+                assertThat(info.getCurSeq()).isEqualTo(info.getMaxSeq());
+                assertThat(getLast(savedSeqs)).isEqualTo(2L);
+            });
+            verify(destination, times(1)).mergeTree(tree(FIRST));
+            verify(destination, times(2)).mergeTree(tree(SECOND));
+
+        } finally {
+            agent.stop();
+        }
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void bootstrapFailureTest() {
+        history.add(event(1, FIRST));
+
+        Guid sessionId = Guid.random();
+        RevisionTree tree = tree(FIRST, 10);
+        when(source.getTrees(any(Hash.class), anyInt())).thenReturn(singletonList(tree));
+        when(source.getTree(FIRST)).thenReturn(tree);
+        when(source.getContent(eq(FIRST), anyLong(), anyLong())).thenAnswer(invocation -> {
+            return new ByteArrayInputStream(new byte[10]);
+        });
+        when(destination.getContentInfo(FIRST)).thenReturn(new ContentInfo(ContentState.ABSENT, FIRST, 0, emptyList()));
+        when(destination.stageContent(FIRST)).thenReturn(new StagingInfo(sessionId, null, 0L));
+        when(destination.writeContent(eq(FIRST), eq(sessionId), any(InputStream.class), anyLong()))
+                .thenReturn(new StagingInfo(sessionId, null, 0L))
+                .thenReturn(new StagingInfo(sessionId, null, 0L))
+                .thenReturn(new StagingInfo(sessionId, null, 0L))
+                .thenReturn(new StagingInfo(sessionId, FIRST, 10L));
+
+        Config config = config().set(AGENTS_REPLICATION_BOOTSTRAP, true);
+        Agent agent = new ReplicationAgent(Guid.random(), config, null, source, destination, curSeqsDao, CUR_SEQ_KEY,
+                                           false);
+        agent.start();
+        try {
+            // Bootstrap gives up after a bounded number of attempts, and source history is replayed instead.
+            async(() -> {
+                AgentInfo info = agent.info();
+                assertThat(info.getState()).isEqualTo(AgentState.WAITING);
+                assertThat(info.getCurSeq()).isEqualTo(info.getMaxSeq());
+                assertThat(getLast(savedSeqs)).isEqualTo(1L);
+            });
+            verify(source, atLeastOnce()).getTree(FIRST);
+            verify(destination, times(4)).stageContent(FIRST);
+            verify(destination, times(1)).mergeTree(tree);
+
+        } finally {
+            agent.stop();
+        }
+    }
+
+    private static Event event(long seq, Hash content) {
+        return new EventBuilder()
+                .withSeq(seq)
+                .withContent(content)
+                .withRevisions(new TreeSet<>())
+                .withTimestamp(now())
+                .withOperation(Operation.UPDATE)
+                .build();
+    }
+
+    private static RevisionTree tree(Hash content) {
+        return tree(content, 0);
+    }
+
+    private static RevisionTree tree(Hash content, long length) {
+        return new RevisionTreeBuilder()
+                .add(new RevisionBuilder()
+                        .withContent(content)
+                        .withLength(length)
+                        .computeRevisionAndBuild())
+                .build();
+    }
+}
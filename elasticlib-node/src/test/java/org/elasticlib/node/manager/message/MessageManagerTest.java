@@ -0,0 +1,156 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.manager.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.elasticlib.common.hash.Guid;
+import org.elasticlib.node.manager.task.TaskManager;
+import org.elasticlib.node.manager.task.TaskType;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Message manager unit tests.
+ */
+@Test(singleThreaded = true)
+public class MessageManagerTest {
+
+    private static final Guid GUID = new Guid("8d5f3c77e94a0cad3a32340d342135f4");
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final AtomicInteger applied = new AtomicInteger();
+    private TaskManager taskManager;
+    private MessageManager messageManager;
+
+    /**
+     * Test set-up.
+     */
+    @BeforeMethod
+    public void setUp() {
+        tasks.clear();
+        applied.set(0);
+        taskManager = mock(TaskManager.class);
+        messageManager = new MessageManager(taskManager);
+
+        // Tasks are queued, and only run on demand.
+        doAnswer(invocation -> {
+            tasks.add((Runnable) invocation.getArguments()[2]);
+            return null;
+        }).when(taskManager).execute(eq(TaskType.MESSAGING), anyString(), any(Runnable.class));
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void coalesceTest() {
+        messageManager.register(NewRepositoryEvent.class, "test", guid -> applied.incrementAndGet());
+        for (int i = 0; i < 3; i++) {
+            messageManager.post(new NewRepositoryEvent(GUID));
+        }
+        assertThat(tasks).hasSize(1);
+
+        runTasks();
+        assertThat(applied.get()).isEqualTo(1);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void coalesceDistinctRepositoriesTest() {
+        messageManager.register(NewRepositoryEvent.class, "test", guid -> applied.incrementAndGet());
+        messageManager.post(new NewRepositoryEvent(GUID));
+        messageManager.post(new NewRepositoryEvent(Guid.random()));
+
+        assertThat(tasks).hasSize(2);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void postDuringExecutionTest() {
+        messageManager.register(NewRepositoryEvent.class, "test", guid -> {
+            if (applied.incrementAndGet() == 1) {
+                messageManager.post(new NewRepositoryEvent(guid));
+            }
+        });
+        messageManager.post(new NewRepositoryEvent(GUID));
+
+        runTasks();
+        assertThat(applied.get()).isEqualTo(2);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void nonCoalescableTest() {
+        messageManager.register(RepositoryAvailable.class, "test", guid -> applied.incrementAndGet());
+        for (int i = 0; i < 3; i++) {
+            messageManager.post(new RepositoryAvailable(GUID));
+        }
+        assertThat(tasks).hasSize(3);
+
+        runTasks();
+        assertThat(applied.get()).isEqualTo(3);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void executeFailureTest() {
+        messageManager.register(NewRepositoryEvent.class, "test", guid -> applied.incrementAndGet());
+        doThrow(new RejectedExecutionException())
+                .doAnswer(invocation -> {
+                    tasks.add((Runnable) invocation.getArguments()[2]);
+                    return null;
+                })
+                .when(taskManager).execute(eq(TaskType.MESSAGING), anyString(), any(Runnable.class));
+
+        try {
+            messageManager.post(new NewRepositoryEvent(GUID));
+            throw new AssertionError("Expected an instance of RejectedExecutionException to be thrown");
+
+        } catch (RejectedExecutionException e) {
+            // Expected, posted message has not been queued.
+        }
+        // Rejected delivery is not pending, so this message is not coalesced with it.
+        messageManager.post(new NewRepositoryEvent(GUID));
+        assertThat(tasks).hasSize(1);
+
+        runTasks();
+        assertThat(applied.get()).isEqualTo(1);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.manager.storage;
+
+import static com.sleepycat.je.EnvironmentConfig.LOG_MEM_ONLY;
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.LockMode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.elasticlib.node.TestUtil.config;
+import static org.elasticlib.node.TestUtil.recursiveDelete;
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Storage manager unit tests.
+ */
+@Test(singleThreaded = true)
+public class StorageManagerTest {
+
+    private static final DatabaseEntry KEY = new DatabaseEntry(new byte[]{1});
+    private static final DatabaseEntry VALUE = new DatabaseEntry(new byte[]{2});
+
+    private Path path;
+    private StorageManager storageManager;
+    private Database database;
+
+    /**
+     * Initialization.
+     *
+     * @throws IOException If an IO error occurs.
+     */
+    @BeforeClass
+    public void init() throws IOException {
+        path = Files.createTempDirectory(getClass().getSimpleName() + "-");
+    }
+
+    /**
+     * Clean up.
+     *
+     * @throws IOException If an IO error occurs.
+     */
+    @AfterClass
+    public void cleanUp() throws IOException {
+        recursiveDelete(path);
+    }
+
+    /**
+     * Test set-up.
+     */
+    @BeforeMethod
+    public void setUp() {
+        storageManager = new StorageManager("storage", path, config().set(LOG_MEM_ONLY, "true"), null);
+        database = storageManager.openDatabase("test");
+    }
+
+    /**
+     * Test tear-down.
+     */
+    @AfterMethod
+    public void tearDown() {
+        storageManager.stop();
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void readOnlyTransactionTest() {
+        storageManager.inTransaction(() -> {
+            database.get(storageManager.currentTransaction(), KEY, new DatabaseEntry(), LockMode.DEFAULT);
+        });
+        assertThat(storageManager.getGroupCommitSyncs()).isEqualTo(0L);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void writeTransactionTest() {
+        storageManager.inTransaction(() -> {
+            database.put(storageManager.currentWriteTransaction(), KEY, VALUE);
+        });
+        assertThat(storageManager.getGroupCommitSyncs()).isEqualTo(1L);
+    }
+}
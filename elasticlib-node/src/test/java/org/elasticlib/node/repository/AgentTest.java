@@ -0,0 +1,408 @@
+/*
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.repository;
+
+import static com.google.common.collect.Iterables.getLast;
+import static java.time.Instant.now;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static java.util.stream.Collectors.toList;
+import org.elasticlib.common.hash.Hash;
+import org.elasticlib.common.model.AgentInfo;
+import org.elasticlib.common.model.AgentState;
+import org.elasticlib.common.model.Event;
+import org.elasticlib.common.model.Event.EventBuilder;
+import org.elasticlib.common.model.Operation;
+import static org.elasticlib.node.TestUtil.async;
+import static org.elasticlib.node.TestUtil.config;
+import org.elasticlib.node.dao.CurSeqsDao;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Agent unit tests.
+ */
+@Test(singleThreaded = true)
+public class AgentTest {
+
+    private static final String CUR_SEQ_KEY = "test";
+    private static final Hash FIRST = new Hash("8d5f3c77e94a0cad3a32340d342135f43dbb7cbb");
+    private static final Hash SECOND = new Hash("0d99dd9895a2a1c485e0c75f79f92cc14457bb62");
+    private static final Hash THIRD = new Hash("2d7a9a1b8e3f4c11a2b3c4d5e6f708192a3b4c5d");
+
+    private final List<Event> history = new CopyOnWriteArrayList<>();
+    private final List<Long> savedSeqs = new CopyOnWriteArrayList<>();
+    private Repository repository;
+    private CurSeqsDao curSeqsDao;
+
+    /**
+     * Test set-up.
+     */
+    @BeforeMethod
+    public void setUp() {
+        history.clear();
+        savedSeqs.clear();
+        repository = mock(Repository.class);
+        curSeqsDao = mock(CurSeqsDao.class);
+
+        when(repository.history(eq(true), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long first = (Long) invocation.getArguments()[1];
+            int number = (Integer) invocation.getArguments()[2];
+            return history.stream()
+                    .filter(event -> event.getSeq() >= first)
+                    .limit(number)
+                    .collect(toList());
+        });
+        when(repository.history(false, Long.MAX_VALUE, 1)).thenAnswer(invocation -> {
+            return history.subList(history.size() - 1, history.size());
+        });
+        doAnswer(invocation -> {
+            savedSeqs.add((Long) invocation.getArguments()[1]);
+            return null;
+        }).when(curSeqsDao).save(anyString(), anyLong());
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void flushFailureTest() {
+        Event first = event(1, FIRST, Operation.CREATE);
+        Event second = event(2, SECOND, Operation.CREATE);
+        Event third = event(3, THIRD, Operation.CREATE);
+        history.add(first);
+        history.add(second);
+        history.add(third);
+
+        AtomicBoolean flushed = new AtomicBoolean();
+        TestAgent agent = new TestAgent() {
+            @Override
+            protected Set<Event> flush() {
+                if (flushed.getAndSet(true)) {
+                    return emptySet();
+                }
+                return singleton(second);
+            }
+        };
+        run(agent, () -> {
+            // Events following the failed one are processed again, and progress is not persisted past it.
+            assertThat(agent.processed).containsExactly(first, second, third, second, third);
+            assertThat(savedSeqs).containsExactly(1L, 3L);
+        });
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void concurrentProcessingTest() {
+        Event first = event(1, FIRST, Operation.CREATE);
+        Event second = event(2, SECOND, Operation.CREATE);
+        Event third = event(3, THIRD, Operation.CREATE);
+        history.add(first);
+        history.add(second);
+        history.add(third);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicBoolean concurrent = new AtomicBoolean();
+        TestAgent agent = new TestAgent(2) {
+            @Override
+            protected boolean process(Event event) {
+                if (event.equals(first)) {
+                    // Only completes early if second event is processed meanwhile.
+                    concurrent.set(await(latch));
+                }
+                if (event.equals(second)) {
+                    latch.countDown();
+                }
+                return super.process(event);
+            }
+        };
+        run(agent, () -> {
+            assertThat(concurrent.get()).isTrue();
+            assertThat(agent.processed).containsOnly(first, second, third);
+            assertThat(getLast(savedSeqs)).isEqualTo(3L);
+        });
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void concurrentProcessingManyEventsTest() {
+        for (int i = 1; i <= 200; i++) {
+            history.add(event(i, new Hash(String.format("%040x", i)), Operation.CREATE));
+        }
+        TestAgent agent = new TestAgent(4);
+        run(agent, () -> {
+            // Agent thread would hang before reaching the end of the history if it missed a completion.
+            assertThat(agent.processed).hasSize(200);
+            assertThat(getLast(savedSeqs)).isEqualTo(200L);
+        });
+    }
+
+    /**
+     * Test.
+     */
+    @Test(timeOut = 20_000)
+    public void stopDuringPauseTest() {
+        history.add(event(1, FIRST, Operation.CREATE));
+
+        CountDownLatch paused = new CountDownLatch(1);
+        TestAgent agent = new TestAgent(2) {
+            @Override
+            protected boolean process(Event event) {
+                paused.countDown();
+                pause(60);
+                return super.process(event);
+            }
+        };
+        agent.start();
+        assertThat(await(paused)).isTrue();
+        agent.signal();
+        agent.stop();
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void coalesceTest() {
+        Event created = event(1, FIRST, Operation.CREATE);
+        Event updated = event(2, FIRST, Operation.UPDATE);
+        Event deleted = event(3, FIRST, Operation.DELETE);
+        history.add(created);
+        history.add(updated);
+        history.add(deleted);
+
+        TestAgent agent = new TestAgent() {
+            @Override
+            protected boolean coalesce() {
+                return true;
+            }
+        };
+        run(agent, () -> {
+            assertThat(agent.processed).containsExactly(deleted);
+            assertThat(savedSeqs).containsExactly(3L);
+        });
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void coalesceConcurrentlyTest() {
+        Event created = event(1, FIRST, Operation.CREATE);
+        Event updated = event(2, FIRST, Operation.UPDATE);
+        Event deleted = event(3, FIRST, Operation.DELETE);
+        history.add(created);
+        history.add(updated);
+        history.add(deleted);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        TestAgent agent = new TestAgent(2) {
+            @Override
+            protected boolean coalesce() {
+                return true;
+            }
+
+            @Override
+            protected boolean process(Event event) {
+                started.countDown();
+                await(latch);
+                return super.process(event);
+            }
+        };
+        agent.start();
+        try {
+            // Progress advances past superseded events, but not past the latest one while it is being processed.
+            assertThat(await(started)).isTrue();
+            agent.signal();
+            async(() -> assertThat(savedSeqs).containsExactly(2L));
+            assertThat(agent.info().getCurSeq()).isEqualTo(2L);
+            latch.countDown();
+
+            async(() -> {
+                assertThat(agent.processed).containsExactly(deleted);
+                assertThat(savedSeqs).containsExactly(2L, 3L);
+            });
+        } finally {
+            latch.countDown();
+            agent.stop();
+        }
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void lightEventsTest() {
+        Event created = event(1, FIRST, Operation.CREATE);
+        history.add(created);
+        for (int i = 2; i <= 6; i++) {
+            history.add(event(i, new Hash(String.format("%040x", i)), Operation.UPDATE));
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicBoolean flushed = new AtomicBoolean();
+        TestAgent agent = new TestAgent(2) {
+            @Override
+            protected boolean isLight(Event event) {
+                return event.getOperation() != Operation.CREATE;
+            }
+
+            @Override
+            protected boolean process(Event event) {
+                if (event.equals(created)) {
+                    await(latch);
+                }
+                return super.process(event);
+            }
+
+            @Override
+            protected Set<Event> flush() {
+                flushed.set(true);
+                return super.flush();
+            }
+        };
+        agent.start();
+        try {
+            // Light events are not held up behind the blocked heavy one, but progress does not advance past it.
+            async(() -> {
+                assertThat(agent.processed).containsOnly(history.subList(1, 6).toArray(new Event[5]));
+                assertThat(flushed.get()).isTrue();
+            });
+            assertThat(savedSeqs).isEmpty();
+            assertThat(agent.info().getCurSeq()).isEqualTo(0L);
+            latch.countDown();
+
+            async(() -> {
+                assertThat(agent.processed).hasSize(6);
+                assertThat(getLast(savedSeqs)).isEqualTo(6L);
+            });
+        } finally {
+            latch.countDown();
+            agent.stop();
+        }
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void handOverTest() {
+        Event updated = event(1, FIRST, Operation.UPDATE);
+        history.add(updated);
+
+        List<Boolean> handedOver = new CopyOnWriteArrayList<>();
+        TestAgent agent = new TestAgent(2) {
+            @Override
+            protected boolean isLight(Event event) {
+                return true;
+            }
+
+            @Override
+            protected boolean process(Event event) {
+                // Event turns out to be lengthy, it is processed again by a regular worker.
+                boolean handOver = handOver();
+                handedOver.add(handOver);
+                return !handOver && super.process(event);
+            }
+        };
+        run(agent, () -> {
+            assertThat(handedOver).containsExactly(true, false);
+            assertThat(agent.processed).containsExactly(updated);
+            assertThat(savedSeqs).containsExactly(1L);
+        });
+    }
+
+    private void run(Agent agent, Runnable assertions) {
+        agent.start();
+        try {
+            async(() -> {
+                AgentInfo info = agent.info();
+                assertThat(info.getState()).isEqualTo(AgentState.WAITING);
+                assertThat(info.getCurSeq()).isEqualTo(info.getMaxSeq());
+                assertions.run();
+            });
+        } finally {
+            agent.stop();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, SECONDS);
+
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static Event event(long seq, Hash content, Operation operation) {
+        return new EventBuilder()
+                .withSeq(seq)
+                .withContent(content)
+                .withRevisions(new TreeSet<>())
+                .withTimestamp(now())
+                .withOperation(operation)
+                .build();
+    }
+
+    /**
+     * An agent which records the events it processes.
+     */
+    private class TestAgent extends Agent {
+
+        final List<Event> processed = new CopyOnWriteArrayList<>();
+        private final int concurrency;
+
+        TestAgent() {
+            this(1);
+        }
+
+        TestAgent(int concurrency) {
+            super("test-agent", config(), repository, curSeqsDao, CUR_SEQ_KEY);
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        protected int concurrency() {
+            return concurrency;
+        }
+
+        @Override
+        protected boolean process(Event event) {
+            processed.add(event);
+            return true;
+        }
+    }
+}
@@ -22,7 +22,9 @@ import java.nio.file.Path;
 import org.elasticlib.common.model.IndexEntry;
 import static org.elasticlib.node.TestUtil.LOREM_IPSUM;
 import static org.elasticlib.node.TestUtil.UNKNOWN_HASH;
+import static org.elasticlib.node.TestUtil.config;
 import static org.elasticlib.node.TestUtil.recursiveDelete;
+import org.elasticlib.node.manager.task.TaskManager;
 import static org.fest.assertions.api.Assertions.assertThat;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -35,6 +37,7 @@ import org.testng.annotations.Test;
 public class IndexTest {
 
     private Path path;
+    private TaskManager taskManager;
     private Index index;
 
     /**
@@ -45,6 +48,7 @@ public class IndexTest {
     @BeforeClass
     public void init() throws IOException {
         path = Files.createTempDirectory(getClass().getSimpleName() + "-");
+        taskManager = new TaskManager(config());
     }
 
     /**
@@ -54,6 +58,10 @@ public class IndexTest {
      */
     @AfterClass
     public void cleanUp() throws IOException {
+        if (index != null) {
+            index.close();
+        }
+        taskManager.stop();
         recursiveDelete(path);
     }
 
@@ -62,7 +70,7 @@ public class IndexTest {
      */
     @Test
     public void create() {
-        index = Index.create("test-index", path);
+        index = Index.create("test-index", path, config(), taskManager);
     }
 
     /**
@@ -99,6 +107,7 @@ public class IndexTest {
         try (InputStream inputStream = LOREM_IPSUM.getInputStream()) {
             index.index(LOREM_IPSUM.getTree(), inputStream);
         }
+        index.commit();
     }
 
     /**
@@ -110,12 +119,22 @@ public class IndexTest {
         assertThat(index.find("lorem", 0, 20)).containsExactly(expected);
     }
 
+    /**
+     * Test.
+     */
+    @Test(groups = "read", dependsOnMethods = "index")
+    public void reindex() {
+        assertThat(index.reindex(LOREM_IPSUM.getTree())).isTrue();
+    }
+
     /**
      * Test.
      */
     @Test(dependsOnGroups = "read")
     public void delete() {
         index.delete(LOREM_IPSUM.getHash());
+        index.commit();
         assertThat(index.find("lorem", 0, 20)).isEmpty();
+        assertThat(index.reindex(LOREM_IPSUM.getTree())).isFalse();
     }
 }
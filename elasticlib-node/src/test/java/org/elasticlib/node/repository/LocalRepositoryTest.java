@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import static java.util.Arrays.asList;
 import static java.util.Arrays.copyOfRange;
 import java.util.Collections;
 import java.util.List;
@@ -31,6 +32,7 @@ import org.elasticlib.common.exception.ConflictException;
 import org.elasticlib.common.exception.InvalidRepositoryPathException;
 import org.elasticlib.common.exception.RepositoryClosedException;
 import org.elasticlib.common.exception.UnknownContentException;
+import org.elasticlib.common.hash.Hash;
 import static org.elasticlib.common.metadata.Properties.Common.CONTENT_TYPE;
 import static org.elasticlib.common.metadata.Properties.Common.FILE_NAME;
 import org.elasticlib.common.model.AgentInfo;
@@ -42,10 +44,12 @@ import org.elasticlib.common.model.Digest;
 import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.IndexEntry;
 import org.elasticlib.common.model.Operation;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.RepositoryDef;
 import org.elasticlib.common.model.RepositoryInfo;
 import org.elasticlib.common.model.RepositoryStats;
 import org.elasticlib.common.model.Revision;
+import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.StagingInfo;
 import static org.elasticlib.common.util.IoUtil.copy;
 import org.elasticlib.common.value.Value;
@@ -90,6 +94,7 @@ public class LocalRepositoryTest {
     private ManagerModule managerModule;
     private Repository repository;
     private RepositoryDef def;
+    private Partition updatedPartition;
 
     /**
      * Initialization.
@@ -380,6 +385,18 @@ public class LocalRepositoryTest {
         assertThat(result.isNoOp()).isTrue();
     }
 
+    /**
+     * Test.
+     */
+    @Test(groups = UPDATE_CONTENT_CHECKS, dependsOnGroups = UPDATE_CONTENT)
+    public void mergeTreesAlreadyMergedTest() {
+        List<RevisionTree> trees = asList(LOREM_IPSUM.getTree(), UPDATED_LOREM_IPSUM.getTree());
+        List<CommandResult> results = repository.mergeTrees(trees);
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).isNoOp()).isTrue();
+        assertThat(results.get(1).isNoOp()).isTrue();
+    }
+
     /**
      * Test.
      */
@@ -388,6 +405,17 @@ public class LocalRepositoryTest {
         assertThat(repository.getTree(LOREM_IPSUM.getHash())).isEqualTo(UPDATED_LOREM_IPSUM.getTree());
     }
 
+    /**
+     * Test.
+     */
+    @Test(groups = UPDATE_CONTENT_CHECKS, dependsOnGroups = UPDATE_CONTENT)
+    public void getTreesAfterUpdateTest() {
+        Hash hash = LOREM_IPSUM.getHash();
+        assertThat(repository.getTrees(Hash.lowest(""), 10)).containsExactly(UPDATED_LOREM_IPSUM.getTree());
+        assertThat(repository.getTrees(hash, 10)).containsExactly(UPDATED_LOREM_IPSUM.getTree());
+        assertThat(repository.getTrees(hash, 0)).isEmpty();
+    }
+
     /**
      * Test.
      */
@@ -402,6 +430,42 @@ public class LocalRepositoryTest {
         assertThat(latest.getRevisions()).isEqualTo(UPDATED_LOREM_IPSUM.getHead());
     }
 
+    /**
+     * Test.
+     */
+    @Test(groups = UPDATE_CONTENT_CHECKS, dependsOnGroups = UPDATE_CONTENT)
+    public void contentHistoryAfterUpdateTest() {
+        List<Event> events = repository.history(UPDATED_LOREM_IPSUM.getHash(), false, Long.MAX_VALUE, 10);
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getOperation()).isEqualTo(Operation.UPDATE);
+        assertThat(events.get(1).getOperation()).isEqualTo(Operation.CREATE);
+
+        Hash hash = UPDATED_LOREM_IPSUM.getHash();
+        long seq = events.get(0).getSeq();
+        assertThat(repository.history(hash, false, seq - 1, 10)).containsExactly(events.get(1));
+        assertThat(repository.history(hash, true, seq, 10)).containsExactly(events.get(0));
+        assertThat(repository.history(UNKNOWN_HASH, true, 0, 10)).isEmpty();
+    }
+
+    /**
+     * Test.
+     */
+    @Test(groups = UPDATE_CONTENT_CHECKS, dependsOnGroups = UPDATE_CONTENT)
+    public void getPartitionsAfterUpdateTest() {
+        Hash hash = UPDATED_LOREM_IPSUM.getHash();
+        List<Partition> partitions = repository.getPartitions("");
+        assertThat(partitions).hasSize(1);
+        assertThat(partitions.get(0).getKey()).isEqualTo(hash.key(1));
+        assertThat(partitions.get(0).getCount()).isEqualTo(1);
+
+        List<Partition> nested = repository.getPartitions(hash.key(1));
+        assertThat(nested).hasSize(1);
+        assertThat(nested.get(0).getKey()).isEqualTo(hash.key(2));
+        assertThat(nested.get(0).getHash()).isEqualTo(partitions.get(0).getHash());
+        assertThat(repository.getPartitions(hash.key(39))).hasSize(1);
+        updatedPartition = partitions.get(0);
+    }
+
     /**
      * Test.
      */
@@ -462,6 +526,22 @@ public class LocalRepositoryTest {
         assertThat(repository.getTree(LOREM_IPSUM.getHash())).isEqualTo(DELETED_LOREM_IPSUM.getTree());
     }
 
+    /**
+     * Test.
+     */
+    @Test(groups = DELETE_CONTENT_CHECKS, dependsOnGroups = DELETE_CONTENT)
+    public void getPartitionsAfterDeleteTest() {
+        Hash hash = DELETED_LOREM_IPSUM.getHash();
+        List<Partition> partitions = repository.getPartitions("");
+        assertThat(partitions).hasSize(1);
+        assertThat(partitions.get(0).getKey()).isEqualTo(hash.key(1));
+        assertThat(partitions.get(0).getCount()).isEqualTo(1);
+
+        // Partitions computed before deletion must not be served anymore.
+        assertThat(partitions.get(0).getHash()).isNotEqualTo(updatedPartition.getHash());
+        assertThat(repository.getPartitions(hash.key(1)).get(0).getHash()).isEqualTo(partitions.get(0).getHash());
+    }
+
     /**
      * Test.
      */
@@ -0,0 +1,89 @@
+/* 
+ * Copyright 2014 Guillaume Masclet <guillaume.masclet@yahoo.fr>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.elasticlib.node.repository;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.elasticlib.common.exception.RepositoryClosedException;
+import org.elasticlib.common.hash.Hash;
+import static org.elasticlib.node.TestUtil.async;
+import static org.fest.assertions.api.Assertions.assertThat;
+import org.testng.annotations.Test;
+
+/**
+ * Lock manager unit tests.
+ */
+public class LockManagerTest {
+
+    private static final Hash FIRST = new Hash("8d5f3c77e94a0cad3a32340d342135f43dbb7cbb");
+    private static final Hash SECOND = new Hash("0d99dd9895a2a1c485e0c75f79f92cc14457bb62");
+
+    /**
+     * Test.
+     */
+    @Test
+    public void unrelatedLocksTest() {
+        LockManager lockManager = new LockManager();
+        lockManager.readLock(FIRST);
+        lockManager.readLock(FIRST);
+        lockManager.writeLock(SECOND);
+
+        assertThat(lockManager.getReadContentions()).isZero();
+        assertThat(lockManager.getWriteContentions()).isZero();
+
+        lockManager.readUnlock(FIRST);
+        lockManager.readUnlock(FIRST);
+        lockManager.writeUnlock(SECOND);
+        lockManager.close();
+    }
+
+    /**
+     * Test.
+     *
+     * @throws InterruptedException If interrupted while waiting for lock holder.
+     */
+    @Test
+    public void contendedLockTest() throws InterruptedException {
+        LockManager lockManager = new LockManager();
+        AtomicBoolean acquired = new AtomicBoolean();
+        lockManager.readLock(FIRST);
+
+        Thread writer = new Thread(() -> {
+            lockManager.writeLock(FIRST);
+            acquired.set(true);
+            lockManager.writeUnlock(FIRST);
+        });
+        writer.start();
+
+        async(() -> assertThat(lockManager.getWriteContentions()).isEqualTo(1));
+        assertThat(acquired.get()).isFalse();
+
+        lockManager.readUnlock(FIRST);
+        writer.join();
+
+        assertThat(acquired.get()).isTrue();
+        lockManager.close();
+    }
+
+    /**
+     * Test.
+     */
+    @Test(expectedExceptions = RepositoryClosedException.class)
+    public void closedTest() {
+        LockManager lockManager = new LockManager();
+        lockManager.close();
+        lockManager.writeLock(FIRST);
+    }
+}
@@ -17,12 +17,14 @@ package org.elasticlib.node.resources;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import java.util.List;
 import javax.ws.rs.core.Application;
 import org.elasticlib.common.client.NodeTarget;
 import org.elasticlib.common.exception.UnexpectedFailureException;
 import org.elasticlib.common.hash.Guid;
 import org.elasticlib.common.model.NodeDef;
 import org.elasticlib.common.model.NodeInfo;
+import org.elasticlib.common.model.TaskStats;
 import org.elasticlib.node.service.NodeService;
 import static org.fest.assertions.api.Assertions.assertThat;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
@@ -79,6 +81,31 @@ public class NodeResourceTest extends AbstractResourceTest {
         assertThat(node.getInfo()).isEqualTo(info);
     }
 
+    /**
+     * Test.
+     */
+    @Test
+    public void getNodeInfoConditionallyTest() {
+        NodeDef def = new NodeDef("test", Guid.random(), singletonList(getBaseUri()));
+        NodeInfo info = new NodeInfo(def, emptyList());
+        NodeInfo previous = new NodeInfo(new NodeDef("previous", def.getGuid(), emptyList()), emptyList());
+
+        when(nodeService.getNodeInfo()).thenReturn(info);
+        assertThat(node.getInfo(info.getTag()).isPresent()).isFalse();
+        assertThat(node.getInfo(previous.getTag()).get()).isEqualTo(info);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void listTaskStatsTest() {
+        List<TaskStats> stats = singletonList(new TaskStats("messaging", 1, 10, 20, 30));
+
+        when(nodeService.listTaskStats()).thenReturn(stats);
+        assertThat(node.listTaskStats()).isEqualTo(stats);
+    }
+
     /**
      * Test.
      */
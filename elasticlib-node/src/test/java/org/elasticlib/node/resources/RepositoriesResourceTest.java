@@ -25,6 +25,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import java.util.List;
 import java.util.SortedSet;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.stream.Collectors.toList;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.MediaType;
@@ -44,8 +45,10 @@ import org.elasticlib.common.model.Event;
 import org.elasticlib.common.model.Event.EventBuilder;
 import org.elasticlib.common.model.IndexEntry;
 import org.elasticlib.common.model.Operation;
+import org.elasticlib.common.model.Partition;
 import org.elasticlib.common.model.RepositoryDef;
 import org.elasticlib.common.model.RepositoryInfo;
+import org.elasticlib.common.model.RepositoryMetrics;
 import org.elasticlib.common.model.Revision;
 import org.elasticlib.common.model.RevisionTree;
 import org.elasticlib.common.model.StagingInfo;
@@ -388,6 +391,25 @@ public class RepositoriesResourceTest extends AbstractResourceTest {
         assertThat(actual).isEqualTo(contentInfo);
     }
 
+    /**
+     * Test.
+     */
+    @Test
+    public void importContentTest() {
+        Guid source = Guid.random();
+        ContentInfo contentInfo = new ContentInfo(ContentState.PRESENT,
+                                                  new Hash("da39a3ee5e6b4b0d3255bfef95601890afd80709"),
+                                                  0,
+                                                  singletonList(LOREM_IPSUM.getRevision()));
+
+        newRepositoryMock();
+        when(repositoriesService.importContent(guid.asHexadecimalString(), hash, source))
+                .thenReturn(completedFuture(contentInfo));
+
+        ContentInfo actual = repositories.get(guid).importContent(hash, source, 1000);
+        assertThat(actual).isEqualTo(contentInfo);
+    }
+
     /**
      * Test.
      */
@@ -465,6 +487,100 @@ public class RepositoriesResourceTest extends AbstractResourceTest {
         assertThat(repositories.get(guid).history(asc, first, size)).isEqualTo(history);
     }
 
+    /**
+     * Test.
+     */
+    @Test
+    public void contentHistoryTest() {
+        boolean asc = false;
+        List<Event> history = singletonList(new EventBuilder()
+                .withOperation(Operation.CREATE)
+                .withSeq(1)
+                .withTimestamp(now())
+                .withContent(hash)
+                .withRevisions(LOREM_IPSUM.getHead())
+                .build());
+
+        Repository repository = newRepositoryMock();
+        when(repository.history(hash, asc, first, size)).thenReturn(history);
+
+        assertThat(repositories.get(guid).history(hash, asc, first, size)).isEqualTo(history);
+    }
+
+    /**
+     * Test.
+     *
+     * @throws Exception If test fails.
+     */
+    @Test
+    public void awaitHistoryTest() throws Exception {
+        List<Event> history = singletonList(new EventBuilder()
+                .withOperation(Operation.CREATE)
+                .withSeq(1)
+                .withTimestamp(now())
+                .withContent(hash)
+                .withRevisions(LOREM_IPSUM.getHead())
+                .build());
+
+        Repository repository = newRepositoryMock();
+        when(repository.awaitHistory(first, size)).thenReturn(completedFuture(history));
+
+        assertThat(repositories.get(guid).awaitHistory(first, size, 1000).get()).isEqualTo(history);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void mergeTreesTest() {
+        List<RevisionTree> trees = singletonList(LOREM_IPSUM.getTree());
+
+        Repository repository = newRepositoryMock();
+        when(repository.mergeTrees(trees)).thenReturn(singletonList(result));
+
+        assertThat(repositories.get(guid).mergeTrees(trees)).containsExactly(result);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void getTreesTest() {
+        List<RevisionTree> trees = singletonList(LOREM_IPSUM.getTree());
+
+        Repository repository = newRepositoryMock();
+        when(repository.getTrees(hash, size)).thenReturn(trees);
+
+        assertThat(repositories.get(guid).getTrees(hash, size)).isEqualTo(trees);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void getPartitionsTest() {
+        String key = hash.key(1);
+        List<Partition> partitions = singletonList(new Partition(hash.key(2), 1, LOREM_IPSUM.getHash()));
+
+        Repository repository = newRepositoryMock();
+        when(repository.getPartitions(key)).thenReturn(partitions);
+
+        assertThat(repositories.get(guid).getPartitions(key)).isEqualTo(partitions);
+    }
+
+    /**
+     * Test.
+     */
+    @Test
+    public void getMetricsTest() {
+        RepositoryMetrics metrics = new RepositoryMetrics(1, 2, 3, 4, 5);
+
+        Repository repository = newRepositoryMock();
+        when(repository.getMetrics()).thenReturn(metrics);
+
+        assertThat(repositories.get(guid).getMetrics()).isEqualTo(metrics);
+    }
+
     /**
      * Test.
      */
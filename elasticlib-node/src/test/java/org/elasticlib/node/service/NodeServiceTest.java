@@ -101,7 +101,8 @@ public class NodeServiceTest {
                                                           nodeNameProvider,
                                                           nodeGuidProvider);
 
-        nodeService = new NodeService(managerModule.getStorageManager(),
+        nodeService = new NodeService(managerModule.getTaskManager(),
+                                      managerModule.getStorageManager(),
                                       localRepositoriesPool,
                                       nodeNameProvider,
                                       nodeGuidProvider,
@@ -138,6 +139,15 @@ public class NodeServiceTest {
         assertThat(nodeService.getNodeInfo()).isEqualTo(expectedInfo());
     }
 
+    /**
+     * Test.
+     */
+    @Test
+    public void getNodeInfoUnchangedTest() {
+        NodeInfo info = nodeService.getNodeInfo();
+        assertThat(nodeService.getNodeInfo()).isSameAs(info);
+    }
+
     private NodeDef expectedDef() {
         return new NodeDef(NAME, nodeGuidProvider.guid(), singletonList(URI.create(LOCALHOST)));
     }
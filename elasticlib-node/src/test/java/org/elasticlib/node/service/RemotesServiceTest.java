@@ -47,6 +47,7 @@ import org.elasticlib.node.manager.ManagerModule;
 import org.elasticlib.node.runtime.RuntimeInfo;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -116,6 +117,7 @@ public class RemotesServiceTest {
 
         nodePingHandler = mock(NodePingHandler.class, CALLS_REAL_METHODS);
         doThrow(AssertionError.class).when(nodePingHandler).ping(any(URI.class));
+        doThrow(AssertionError.class).when(nodePingHandler).ping(any(URI.class), any(NodeInfo.class));
 
         NodeGuidProvider nodeGuidProvider = mock(NodeGuidProvider.class);
         when(nodeGuidProvider.guid()).thenReturn(LOCAL_GUID);
@@ -316,6 +318,19 @@ public class RemotesServiceTest {
         assertHasRemote(updated);
     }
 
+    /**
+     * Test.
+     */
+    @Test
+    public void pingRemotesUnchangedTest() {
+        whenPingReturn(REMOTE_INFO);
+        remotesService.addRemote(singletonList(TEST_URI));
+
+        whenPingReturn(new RemoteInfo(new NodeInfo(REMOTE_DEF, emptyList()), TEST_URI, Instant.now().plusSeconds(60)));
+        remotesService.pingRemotes();
+        assertHasRemote(REMOTE_INFO);
+    }
+
     /**
      * Test.
      */
@@ -361,10 +376,12 @@ public class RemotesServiceTest {
 
     private void whenPingReturn(RemoteInfo info) {
         doReturn(Optional.of(info)).when(nodePingHandler).ping(TEST_URI);
+        doReturn(Optional.of(info)).when(nodePingHandler).ping(eq(TEST_URI), any(NodeInfo.class));
     }
 
     private void whenPingReturnEmpty() {
         doReturn(Optional.empty()).when(nodePingHandler).ping(TEST_URI);
+        doReturn(Optional.empty()).when(nodePingHandler).ping(eq(TEST_URI), any(NodeInfo.class));
     }
 
     private void assertHasRemote(RemoteInfo expected) {
@@ -108,9 +108,14 @@ public class ReplicationsServiceTest {
         RepositoriesProvider repositoriesProvider = new RepositoriesProvider(localRepositoriesPool,
                                                                              remoteRepositoriesPool);
 
-        replicationAgentsPool = new ReplicationAgentsPool(config, curSeqsDao, repositoriesProvider);
+        replicationAgentsPool = new ReplicationAgentsPool(config, taskManager, curSeqsDao, repositoriesProvider);
 
-        repositoriesService = new RepositoriesService(storageManager, messageManager, localRepositoriesPool);
+        repositoriesService = new RepositoriesService(config,
+                                                      taskManager,
+                                                      storageManager,
+                                                      messageManager,
+                                                      localRepositoriesPool,
+                                                      repositoriesProvider);
         replicationsService = new ReplicationsService(storageManager,
                                                       messageManager,
                                                       replicationsDao,
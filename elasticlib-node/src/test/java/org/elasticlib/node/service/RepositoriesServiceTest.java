@@ -32,6 +32,7 @@ import static org.elasticlib.node.TestUtil.config;
 import static org.elasticlib.node.TestUtil.recursiveDelete;
 import org.elasticlib.node.components.LocalRepositoriesFactory;
 import org.elasticlib.node.components.LocalRepositoriesPool;
+import org.elasticlib.node.components.RepositoriesProvider;
 import org.elasticlib.node.dao.RepositoriesDao;
 import org.elasticlib.node.manager.ManagerModule;
 import org.elasticlib.node.repository.Repository;
@@ -85,9 +86,12 @@ public class RepositoriesServiceTest {
 
         localRepositoriesPool = new LocalRepositoriesPool(repositoriesDao, factory, null, null);
 
-        repositoriesService = new RepositoriesService(managerModule.getStorageManager(),
+        repositoriesService = new RepositoriesService(config,
+                                                      managerModule.getTaskManager(),
+                                                      managerModule.getStorageManager(),
                                                       managerModule.getMessageManager(),
-                                                      localRepositoriesPool);
+                                                      localRepositoriesPool,
+                                                      new RepositoriesProvider(localRepositoriesPool, null));
 
         managerModule.start();
         managerModule.getStorageManager().inTransaction(localRepositoriesPool::start);